@@ -0,0 +1,54 @@
+package entropydata.sdk;
+
+import entropydata.sdk.client.model.Asset;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Change detection of an unchanged asset: the deep comparison with the remote asset in saveAsset without an assets index,
+ * and the fingerprint that is compared with an assets index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssetDiffBenchmark {
+
+  @Param({"10", "100", "1000"})
+  int columns;
+
+  private Asset asset;
+  private Asset remoteAsset;
+  private String remoteFingerprint;
+
+  @Setup
+  public void setup() {
+    asset = BenchmarkFixtures.asset("orders", columns);
+    remoteAsset = BenchmarkFixtures.asset("orders", columns);
+    remoteFingerprint = EntropyDataAssetFingerprint.of(remoteAsset);
+  }
+
+  @Benchmark
+  public boolean deepEquals() {
+    return Objects.deepEquals(asset, remoteAsset);
+  }
+
+  @Benchmark
+  public boolean fingerprint() {
+    return EntropyDataAssetFingerprint.of(asset).equals(remoteFingerprint);
+  }
+
+}
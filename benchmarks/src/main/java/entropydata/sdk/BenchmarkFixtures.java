@@ -0,0 +1,95 @@
+package entropydata.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import entropydata.sdk.client.model.Asset;
+import entropydata.sdk.client.model.AssetColumn;
+import entropydata.sdk.client.model.AssetInfo;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test data for the benchmarks. The benchmarks are in the package of the SDK to reach the package-private event dispatcher.
+ */
+final class BenchmarkFixtures {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * The WireMock stub mappings of a resource in src/test/resources/wiremock.
+   */
+  static List<String> mappings(String resource) {
+    var mappings = new ArrayList<String>();
+    for (JsonNode mapping : read(resource).get("mappings")) {
+      mappings.add(mapping.toString());
+    }
+    return mappings;
+  }
+
+  /**
+   * A response body of the events feed with the given number of events, repeating the events of wiremock/events.json.
+   */
+  static byte[] events(int count) {
+    var events = read("events.json").get("mappings").get(0).get("response").get("jsonBody");
+    ArrayNode body = objectMapper.createArrayNode();
+    for (int i = 0; i < count; i++) {
+      body.add(events.get(i % events.size()));
+    }
+    try {
+      return objectMapper.writeValueAsBytes(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * A table asset with the given number of columns, each with nested properties, tags, and custom fields.
+   * Every call returns a new, equal graph.
+   */
+  static Asset asset(String id, int columns) {
+    var asset = new Asset()
+        .id(id)
+        .info(new AssetInfo()
+            .source("snowflake")
+            .sourceId(id)
+            .type("snowflake_table")
+            .name("orders_" + id)
+            .qualifiedName("SALES.PUBLIC.ORDERS_" + id)
+            .status("active")
+            .description("All orders of the online shop, one row per order line."))
+        .properties(Map.of("database", "SALES", "schema", "PUBLIC", "rowCount", 123_456_789L))
+        .tags(List.of("pii", "gold"));
+    for (int i = 0; i < columns; i++) {
+      asset.addColumnsItem(new AssetColumn()
+          .name("column_" + i)
+          .type(i % 3 == 0 ? "VARCHAR" : "NUMBER")
+          .description("Column " + i + " of the orders table")
+          .required(i % 2 == 0)
+          .primaryKey(i == 0)
+          .tags(List.of("tag-" + (i % 5)))
+          .custom(Map.of("classification", i % 7 == 0 ? "restricted" : "internal"))
+          .addPropertiesItem(new AssetColumn().name("nested_" + i).type("VARCHAR")));
+    }
+    return asset;
+  }
+
+  private static JsonNode read(String resource) {
+    try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/wiremock/" + resource)) {
+      if (in == null) {
+        throw new IllegalStateException("Resource not found: wiremock/" + resource);
+      }
+      return objectMapper.readTree(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
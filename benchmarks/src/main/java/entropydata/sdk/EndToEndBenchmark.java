@@ -0,0 +1,116 @@
+package entropydata.sdk;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import entropydata.sdk.client.model.Asset;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The SDK against an in-process WireMock stand-in of the Entropy Data API, with the stubs of the tests.
+ * Measures the client-side cost of a round trip on localhost: connection pool, serialization, and decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+  private static final int columns = 100;
+
+  private WireMockServer server;
+  private EntropyDataClient client;
+  private EntropyDataEventDispatcher dispatcher;
+  private EntropyDataAssetsSynchronizer synchronizer;
+  private EntropyDataStateRepository remoteStateRepository;
+  private Asset newAsset;
+  private Asset unchangedAsset;
+  private long eventCounter;
+
+  @Setup
+  public void setup() throws IOException {
+    server = new WireMockServer(options().dynamicPort());
+    server.start();
+    for (var resource : new String[] {"events.json", "dataproduct.json", "access.json", "integration.json"}) {
+      BenchmarkFixtures.mappings(resource).forEach(mapping -> server.addStubMapping(StubMapping.buildFrom(mapping)));
+    }
+
+    client = EntropyDataClient.builder()
+        .host(server.baseUrl())
+        .apiKey("benchmark")
+        .build();
+    dispatcher = new EntropyDataEventDispatcher(new EventDispatchBenchmark.TypedHandler());
+    synchronizer = new EntropyDataAssetsSynchronizer("benchmark-assets", client, callback -> {
+    });
+    remoteStateRepository = new EntropyDataStateRepositoryRemote("benchmark-events", client);
+
+    newAsset = BenchmarkFixtures.asset("new", columns);
+    unchangedAsset = BenchmarkFixtures.asset("unchanged", columns);
+    server.stubFor(get(urlPathEqualTo("/api/assets/new")).willReturn(notFound()));
+    server.stubFor(get(urlPathEqualTo("/api/assets/unchanged")).willReturn(aResponse()
+        .withHeader("Content-Type", "application/json")
+        .withBody(client.getApiClient().getObjectMapper().writeValueAsString(unchangedAsset))));
+    server.stubFor(put(urlPathEqualTo("/api/assets/new")).willReturn(ok()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+    server.stop();
+  }
+
+  /**
+   * One poll of the events feed, as done by the EntropyDataEventListener.
+   */
+  @Benchmark
+  public void pollAndDispatchEvents(Blackhole blackhole) throws IOException {
+    for (var event : dispatcher.decode(client.pollEventsAsBytes(null, false))) {
+      dispatcher.dispatch(event);
+      blackhole.consume(event);
+    }
+  }
+
+  /**
+   * Change detection without an assets index: GET and deep comparison, without a write.
+   */
+  @Benchmark
+  public void saveUnchangedAsset() {
+    synchronizer.saveAsset(unchangedAsset);
+  }
+
+  /**
+   * A new asset: GET with 404, then PUT.
+   */
+  @Benchmark
+  public void saveNewAsset() {
+    synchronizer.saveAsset(newAsset);
+  }
+
+  @Benchmark
+  public void putLastEventIdRemote() {
+    remoteStateRepository.putState("lastEventId", "1ef9ebfe-29f4-6f4a-b4cc-" + eventCounter++);
+  }
+
+}
@@ -0,0 +1,101 @@
+package entropydata.sdk;
+
+import entropydata.sdk.client.model.AccessActivatedEvent;
+import entropydata.sdk.client.model.AccessCreatedEvent;
+import entropydata.sdk.client.model.CloudEvent;
+import entropydata.sdk.client.model.DataProductCreatedEvent;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Decoding and dispatching a page of the events feed, as done by the EntropyDataEventListener for every page.
+ * The events are those of src/test/resources/wiremock/events.json, repeated to the page size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+  @Param({"10", "1000"})
+  int events;
+
+  private byte[] page;
+  private EntropyDataEventDispatcher typedDispatcher;
+  private EntropyDataEventDispatcher genericDispatcher;
+
+  @Setup
+  public void setup() {
+    page = BenchmarkFixtures.events(events);
+    typedDispatcher = new EntropyDataEventDispatcher(new TypedHandler());
+    genericDispatcher = new EntropyDataEventDispatcher(new GenericHandler());
+  }
+
+  @Benchmark
+  public List<EntropyDataEventDispatcher.Event> decode() throws IOException {
+    return typedDispatcher.decode(page);
+  }
+
+  @Benchmark
+  public void decodeAndDispatch(Blackhole blackhole) throws IOException {
+    for (var event : typedDispatcher.decode(page)) {
+      typedDispatcher.dispatch(event);
+      blackhole.consume(event);
+    }
+  }
+
+  /**
+   * A handler that overrides onEvent, so that every payload is also materialized as a map.
+   */
+  @Benchmark
+  public void decodeAndDispatchGeneric(Blackhole blackhole) throws IOException {
+    for (var event : genericDispatcher.decode(page)) {
+      genericDispatcher.dispatch(event);
+      blackhole.consume(event);
+    }
+  }
+
+  static class TypedHandler implements EntropyDataEventHandler {
+
+    long handled;
+
+    @Override
+    public void onDataProductCreatedEvent(DataProductCreatedEvent event) {
+      handled++;
+    }
+
+    @Override
+    public void onAccessCreatedEvent(AccessCreatedEvent event) {
+      handled++;
+    }
+
+    @Override
+    public void onAccessActivatedEvent(AccessActivatedEvent event) {
+      handled++;
+    }
+  }
+
+  static class GenericHandler extends TypedHandler {
+
+    @Override
+    public void onEvent(CloudEvent event) {
+      handled += event.getData() != null ? 1 : 0;
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+package entropydata.sdk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The latency of saving the lastEventId, which the event listener does at every checkpoint.
+ * The remote repository is measured against WireMock in {@link EndToEndBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateRepositoryBenchmark {
+
+  @Param({"inMemory", "localFile", "localFileEveryWrite", "cached"})
+  String repository;
+
+  private EntropyDataStateRepository stateRepository;
+  private Path directory;
+  private long eventCounter;
+
+  @Setup
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("entropy-data-state-benchmark");
+    stateRepository = switch (repository) {
+      case "inMemory" -> new EntropyDataStateRepositoryInMemory("benchmark");
+      case "localFile" -> new EntropyDataStateRepositoryLocalFile("benchmark", directory);
+      case "localFileEveryWrite" -> new EntropyDataStateRepositoryLocalFile("benchmark", directory,
+          EntropyDataStateRepositoryLocalFile.SyncPolicy.EVERY_WRITE);
+      case "cached" -> new EntropyDataStateRepositoryCached(new EntropyDataStateRepositoryInMemory("benchmark"), Duration.ofSeconds(5));
+      default -> throw new IllegalArgumentException(repository);
+    };
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (stateRepository instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void putLastEventId() {
+    stateRepository.putState("lastEventId", "1ef9ebfe-29f4-6f4a-b4cc-" + eventCounter++);
+  }
+
+}
@@ -0,0 +1,159 @@
+package entropydata.sdk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import entropydata.sdk.client.model.Asset;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HexFormat;
+
+/**
+ * Calculates a content hash of an Asset. Two assets with equal content have the same fingerprint.
+ * <p>
+ * The asset is serialized to a canonical JSON: object properties and map entries are sorted by name, and null, empty
+ * strings, empty lists, and empty maps are omitted, so that a server that normalizes these fields does not cause false changes.
+ * The order of list elements, e.g., columns, is significant. The JSON is hashed with the 128-bit MurmurHash3 (x64 variant)
+ * while it is written, without materializing it.
+ */
+public final class EntropyDataAssetFingerprint {
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .findAndAddModules()
+      .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+      .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+      .defaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_EMPTY, JsonInclude.Include.NON_EMPTY))
+      .build();
+
+  private EntropyDataAssetFingerprint() {
+  }
+
+  /**
+   * The fingerprint as 32 hex characters.
+   */
+  public static String of(Asset asset) {
+    var hash = new Murmur3Hash128();
+    try {
+      objectMapper.writeValue(hash, asset);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Failed to serialize asset " + asset.getId(), e);
+    }
+    return hash.toHex();
+  }
+
+  /**
+   * MurmurHash3_x64_128 with seed 0, computed incrementally over the written bytes.
+   * The result is the same as Guava's {@code Hashing.murmur3_128()}.
+   */
+  static final class Murmur3Hash128 extends OutputStream {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final byte[] block = new byte[16];
+    private int blockLength = 0;
+    private long length = 0;
+    private long h1 = 0;
+    private long h2 = 0;
+
+    @Override
+    public void write(int b) {
+      block[blockLength++] = (byte) b;
+      length++;
+      if (blockLength == 16) {
+        mixBlock(block, 0);
+        blockLength = 0;
+      }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int count) {
+      length += count;
+      int end = offset + count;
+      if (blockLength > 0) {
+        int n = Math.min(16 - blockLength, count);
+        System.arraycopy(bytes, offset, block, blockLength, n);
+        blockLength += n;
+        offset += n;
+        if (blockLength < 16) {
+          return;
+        }
+        mixBlock(block, 0);
+        blockLength = 0;
+      }
+      for (; offset + 16 <= end; offset += 16) {
+        mixBlock(bytes, offset);
+      }
+      blockLength = end - offset;
+      System.arraycopy(bytes, offset, block, 0, blockLength);
+    }
+
+    private void mixBlock(byte[] bytes, int offset) {
+      long k1 = getLongLittleEndian(bytes, offset);
+      long k2 = getLongLittleEndian(bytes, offset + 8);
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    String toHex() {
+      long k1 = 0;
+      long k2 = 0;
+      for (int i = blockLength - 1; i >= 8; i--) {
+        k2 = (k2 << 8) | (block[i] & 0xffL);
+      }
+      for (int i = Math.min(blockLength, 8) - 1; i >= 0; i--) {
+        k1 = (k1 << 8) | (block[i] & 0xffL);
+      }
+      long r1 = h1 ^ mixK1(k1);
+      long r2 = h2 ^ mixK2(k2);
+
+      r1 ^= length;
+      r2 ^= length;
+      r1 += r2;
+      r2 += r1;
+      r1 = fmix(r1);
+      r2 = fmix(r2);
+      r1 += r2;
+      r2 += r1;
+      return HexFormat.of().toHexDigits(Long.reverseBytes(r1)) + HexFormat.of().toHexDigits(Long.reverseBytes(r2));
+    }
+
+    private static long mixK1(long k1) {
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+      k ^= k >>> 33;
+      k *= 0xff51afd7ed558ccdL;
+      k ^= k >>> 33;
+      k *= 0xc4ceb9fe1a85ec53L;
+      k ^= k >>> 33;
+      return k;
+    }
+
+    private static long getLongLittleEndian(byte[] bytes, int offset) {
+      long value = 0;
+      for (int i = 7; i >= 0; i--) {
+        value = (value << 8) | (bytes[offset + i] & 0xffL);
+      }
+      return value;
+    }
+  }
+
+}
@@ -0,0 +1,49 @@
+package entropydata.sdk;
+
+import java.util.Arrays;
+
+/**
+ * A compact set of asset ids that stores a 64-bit hash per id in a sorted primitive array (8 bytes per id).
+ * A hash collision can only make an id appear to be contained, so an asset is never deleted because of a collision.
+ */
+final class EntropyDataAssetIdSet {
+
+  private long[] hashes = new long[1024];
+  private int size = 0;
+  private boolean sorted = true;
+
+  synchronized void add(String id) {
+    if (size == hashes.length) {
+      hashes = Arrays.copyOf(hashes, size * 2);
+    }
+    hashes[size++] = hash(id);
+    sorted = false;
+  }
+
+  synchronized boolean contains(String id) {
+    if (!sorted) {
+      Arrays.sort(hashes, 0, size);
+      sorted = true;
+    }
+    return Arrays.binarySearch(hashes, 0, size, hash(id)) >= 0;
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   * 64-bit FNV-1a over the UTF-16 chars, followed by the SplitMix64 finalizer for better bit distribution.
+   */
+  static long hash(String id) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < id.length(); i++) {
+      h ^= id.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+
+}
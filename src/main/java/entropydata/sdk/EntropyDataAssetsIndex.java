@@ -0,0 +1,34 @@
+package entropydata.sdk;
+
+import jakarta.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * Stores a fingerprint (content hash) for every asset that has been synchronized to Entropy Data, keyed by the asset id.
+ * The EntropyDataAssetsSynchronizer uses this index to skip unchanged assets without calling the API.
+ */
+public interface EntropyDataAssetsIndex {
+
+  @Nullable
+  String getFingerprint(String assetId);
+
+  void putFingerprint(String assetId, String fingerprint);
+
+  void removeFingerprint(String assetId);
+
+  /**
+   * Returns a read-only view of the ids of all indexed assets.
+   */
+  Set<String> getAssetIds();
+
+  int size();
+
+  void clear();
+
+  /**
+   * Persists pending changes. Called by the EntropyDataAssetsSynchronizer after every synchronization.
+   */
+  default void flush() {
+  }
+
+}
@@ -0,0 +1,44 @@
+package entropydata.sdk;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A simple in-memory implementation of EntropyDataAssetsIndex. The index is cold after every restart.
+ */
+public class EntropyDataAssetsIndexInMemory implements EntropyDataAssetsIndex {
+
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<>(); // key: assetId, value: fingerprint
+
+  @Override
+  public String getFingerprint(String assetId) {
+    return fingerprints.get(assetId);
+  }
+
+  @Override
+  public void putFingerprint(String assetId, String fingerprint) {
+    fingerprints.put(assetId, fingerprint);
+  }
+
+  @Override
+  public void removeFingerprint(String assetId) {
+    fingerprints.remove(assetId);
+  }
+
+  @Override
+  public Set<String> getAssetIds() {
+    return Collections.unmodifiableSet(fingerprints.keySet());
+  }
+
+  @Override
+  public int size() {
+    return fingerprints.size();
+  }
+
+  @Override
+  public void clear() {
+    fingerprints.clear();
+  }
+}
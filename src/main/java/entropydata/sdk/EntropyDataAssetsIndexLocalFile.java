@@ -0,0 +1,117 @@
+package entropydata.sdk;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the EntropyDataAssetsIndex in memory and persists it to a local file, so that the index survives restarts of the connector.
+ * The file contains one line per asset in the format {@code <assetId>\t<fingerprint>} and is replaced atomically on flush.
+ */
+public class EntropyDataAssetsIndexLocalFile implements EntropyDataAssetsIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataAssetsIndexLocalFile.class);
+
+  private final Path file;
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<>(); // key: assetId, value: fingerprint
+  private volatile boolean dirty = false;
+
+  public EntropyDataAssetsIndexLocalFile(Path file) {
+    this.file = Objects.requireNonNull(file, "file must not be null");
+    load();
+  }
+
+  @Override
+  public String getFingerprint(String assetId) {
+    return fingerprints.get(assetId);
+  }
+
+  @Override
+  public void putFingerprint(String assetId, String fingerprint) {
+    if (!fingerprint.equals(fingerprints.put(assetId, fingerprint))) {
+      dirty = true;
+    }
+  }
+
+  @Override
+  public void removeFingerprint(String assetId) {
+    if (fingerprints.remove(assetId) != null) {
+      dirty = true;
+    }
+  }
+
+  @Override
+  public Set<String> getAssetIds() {
+    return Collections.unmodifiableSet(fingerprints.keySet());
+  }
+
+  @Override
+  public int size() {
+    return fingerprints.size();
+  }
+
+  @Override
+  public void clear() {
+    fingerprints.clear();
+    dirty = true;
+  }
+
+  @Override
+  public synchronized void flush() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        for (var entry : fingerprints.entrySet()) {
+          writer.write(entry.getKey());
+          writer.write('\t');
+          writer.write(entry.getValue());
+          writer.newLine();
+        }
+      }
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.debug("Flushed {} asset fingerprints to {}", fingerprints.size(), file);
+    } catch (IOException e) {
+      dirty = true;
+      throw new UncheckedIOException("Failed to write assets index " + file, e);
+    }
+  }
+
+  private void load() {
+    if (!Files.exists(file)) {
+      log.info("Assets index {} does not exist, starting with an empty index", file);
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        int separator = line.lastIndexOf('\t');
+        if (separator <= 0) {
+          log.warn("Ignoring invalid line in assets index {}", file);
+          continue;
+        }
+        fingerprints.put(line.substring(0, separator), line.substring(separator + 1));
+      }
+      log.info("Loaded {} asset fingerprints from {}", fingerprints.size(), file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read assets index " + file, e);
+    }
+  }
+}
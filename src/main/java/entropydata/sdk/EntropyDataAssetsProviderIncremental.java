@@ -0,0 +1,30 @@
+package entropydata.sdk;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * An EntropyDataAssetsProvider that can send only the assets that have changed since a high-water mark, e.g., by the
+ * last_altered column of the information_schema or by the audit log of a catalog.
+ * <p>
+ * The EntropyDataAssetsSynchronizer saves the returned high-water mark in its state repository and passes it to the next
+ * synchronization. Periodically, and whenever no high-water mark is known, it requests all assets with a null high-water mark
+ * to reconcile the full inventory, including the deletion of missing assets.
+ */
+public interface EntropyDataAssetsProviderIncremental extends EntropyDataAssetsProvider {
+
+  /**
+   * Sends the assets that have been created, updated, or deleted since the high-water mark.
+   *
+   * @param highWaterMark the value returned by the last successful synchronization, or null to send all assets
+   * @return the new high-water mark, e.g., the start time of this fetch or the last processed position of an audit log.
+   * Changes that happen during the fetch must not be before the returned high-water mark, so they are sent again next time.
+   */
+  @Nullable
+  String fetchChangedAssets(@Nullable String highWaterMark, AssetCallback callback);
+
+  @Override
+  default void fetchAssets(AssetCallback callback) {
+    fetchChangedAssets(null, callback);
+  }
+
+}
@@ -1,10 +1,21 @@
 package entropydata.sdk;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import entropydata.sdk.EntropyDataAssetsProvider.AssetCallback;
+import entropydata.sdk.EntropyDataMetrics.AssetOutcome;
 import entropydata.sdk.client.ApiException;
 import entropydata.sdk.client.model.Asset;
+import jakarta.annotation.Nullable;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,22 +28,108 @@ public class EntropyDataAssetsSynchronizer {
   private final EntropyDataClient client;
   private final EntropyDataConnectorRegistration connectorRegistration;
   private final EntropyDataAssetsProvider assetsProvider;
+  private final EntropyDataMetrics metrics;
+  private final ObjectMapper objectMapper;
+  private final EntropyDataStateRepository stateRepository;
   private volatile boolean stopped = false;
+  private final CountDownLatch stopSignal = new CountDownLatch(1); // wakes up the waiting loop on stop()
 
   private Duration delay = Duration.parse("PT60M");
 
+  /**
+   * Optional index of the fingerprints of all synchronized assets. If set, unchanged assets are skipped without any API call.
+   */
+  private EntropyDataAssetsIndex assetsIndex;
+  private volatile boolean assetsIndexSuspect = false;
+
+  /**
+   * If enabled, the full remote inventory is loaded with the paged assets list at the start of every full synchronization,
+   * so that change detection needs one request per 1000 assets instead of one request per asset. With an assets index, the
+   * index is used instead, and only loaded when it is empty or suspect.
+   */
+  private boolean prefetchRemoteAssets = false;
+
+  /**
+   * The index that is used for change detection in the current synchronization, or null to fetch each asset individually.
+   */
+  private volatile EntropyDataAssetsIndex activeIndex;
+
+  /**
+   * If enabled, remote assets owned by this connector that have not been sent by the provider during a full scan are deleted.
+   */
+  private boolean deleteMissingAssets = false;
+
+  /**
+   * Selects the remote assets that are owned by this connector. Only owned assets are indexed and considered for deletion.
+   * Without a filter, all remote assets are indexed, and deleting missing assets is not allowed, as it would delete the assets
+   * of other connectors.
+   */
+  private Predicate<Asset> ownedAssetsFilter;
+
+  /**
+   * Safety threshold: if more than this ratio of the owned remote assets would be deleted, the deletion is aborted.
+   */
+  private double maxDeletionRatio = 0.1;
+
+  /**
+   * The number of asset writes (saves and deletes) that are executed in parallel. With 1, assets are written on the provider's thread.
+   */
+  private int concurrency = 1;
+
+  /**
+   * The maximum number of asset writes that are submitted but not yet completed. The provider callback blocks when this is reached.
+   */
+  private int maxPendingWrites = 1000;
+
+  /**
+   * If set, the fingerprint of every written asset is saved in this custom property of the asset. Remote assets are then compared by the saved
+   * fingerprint, so that fields that are normalized by the server do not cause false changes.
+   */
+  private String fingerprintProperty;
+
+  /**
+   * With an EntropyDataAssetsProviderIncremental, the interval of full synchronizations. In between, only the changed assets
+   * are synchronized.
+   */
+  private Duration fullSynchronizationInterval = Duration.ofHours(24);
+
+  // the progress of an EntropyDataAssetsProviderIncremental, saved in the state repository if there is one
+  private boolean synchronizationStateLoaded = false;
+  private String highWaterMark;
+  private Instant lastFullSynchronization;
+  private volatile boolean fullSynchronizationRequested = false;
+
   public EntropyDataAssetsSynchronizer(
       String connectorId,
       EntropyDataClient client,
       EntropyDataAssetsProvider assetsProvider) {
+    this(connectorId, client, assetsProvider, null);
+  }
+
+  /**
+   * @param stateRepository stores the high-water mark of an EntropyDataAssetsProviderIncremental, so that a restart continues
+   *     with the changed assets instead of a full synchronization
+   */
+  public EntropyDataAssetsSynchronizer(
+      String connectorId,
+      EntropyDataClient client,
+      EntropyDataAssetsProvider assetsProvider,
+      @Nullable EntropyDataStateRepository stateRepository) {
     this.connectorId = connectorId;
     this.client = client;
     this.assetsProvider = assetsProvider;
+    this.stateRepository = stateRepository;
+    this.metrics = client.getMetrics();
+    this.objectMapper = client.getApiClient().getObjectMapper();
     this.connectorRegistration = new EntropyDataConnectorRegistration(client, connectorId, "assets-synchronizer");
 
     this.connectorRegistration.register();
   }
 
+  /**
+   * Synchronizes the assets in an infinite loop on the current thread. Alternatively, add the synchronizer to an
+   * EntropyDataConnectorRuntime, which calls {@link #synchronizeAssets()} on a shared executor.
+   */
   public void start() {
     log.info("{}: start syncing assets", connectorId);
 
@@ -42,8 +139,8 @@ public class EntropyDataAssetsSynchronizer {
     while (!this.stopped) {
       synchronizeAssets();
       try {
-        log.info("Waiting for {} until next sync ...", delay);
-        Thread.sleep(delay.toMillis());
+        log.debug("Waiting for {} until next sync ...", delay);
+        stopSignal.await(delay.toMillis(), TimeUnit.MILLISECONDS);
       } catch (InterruptedException e) {
         break;
       }
@@ -56,21 +153,228 @@ public class EntropyDataAssetsSynchronizer {
       return;
     }
     this.stopped = true;
+    stopSignal.countDown();
     log.info("{}: Stopped syncing assets", connectorId);
   }
 
+  boolean isStopped() {
+    return stopped;
+  }
+
+  public String getConnectorId() {
+    return connectorId;
+  }
+
   public void synchronizeAssets() {
-    assetsProvider.fetchAssets(new AssetCallback() {
-      @Override
-      public void onAssetUpdated(Asset asset) {
-        saveAsset(asset);
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      doSynchronizeAssets();
+      failed = false;
+      log.info("{}: Synchronized assets in {} ms", connectorId, (System.nanoTime() - start) / 1_000_000);
+    } finally {
+      metrics.recordSynchronization(connectorId, System.nanoTime() - start, failed);
+    }
+  }
+
+  private void doSynchronizeAssets() {
+    loadSynchronizationState();
+    boolean full = isFullSynchronizationDue();
+    if (!full) {
+      // prefetching the full remote inventory would defeat the purpose of an incremental synchronization
+      activeIndex = assetsIndex;
+    } else if (assetsIndex != null) {
+      // a valid index already has the fingerprints, so it is only rebuilt, also if prefetching is enabled, when it is empty or suspect
+      if (assetsIndex.size() == 0 || assetsIndexSuspect) {
+        loadRemoteAssets(assetsIndex);
       }
+      activeIndex = assetsIndex;
+    } else if (prefetchRemoteAssets) {
+      activeIndex = new EntropyDataAssetsIndexInMemory();
+      loadRemoteAssets(activeIndex);
+    } else {
+      activeIndex = null;
+    }
 
-      @Override
-      public void onAssetDeleted(String id) {
-        deleteAsset(id);
+    // missing assets can only be detected when the provider has sent all assets
+    var seenAssetIds = full && deleteMissingAssets ? new EntropyDataAssetIdSet() : null;
+    String newHighWaterMark = null;
+    var startTime = Instant.now();
+    try (var writes = new AssetWrites()) {
+      var callback = new AssetCallback() {
+        @Override
+        public void onAssetUpdated(Asset asset) {
+          metrics.recordAsset(connectorId, AssetOutcome.SCANNED);
+          if (seenAssetIds != null) {
+            seenAssetIds.add(asset.getId());
+          }
+          writes.submit(asset.getId(), () -> saveAsset(asset));
+        }
+
+        @Override
+        public void onAssetDeleted(String id) {
+          writes.submit(id, () -> deleteAsset(id));
+        }
+      };
+      if (assetsProvider instanceof EntropyDataAssetsProviderIncremental incrementalProvider) {
+        log.info("{}: Synchronizing {}", connectorId, full ? "all assets" : "assets changed since " + highWaterMark);
+        newHighWaterMark = incrementalProvider.fetchChangedAssets(full ? null : highWaterMark, callback);
+      } else {
+        assetsProvider.fetchAssets(callback);
+      }
+      writes.drain();
+      if (seenAssetIds != null) {
+        deleteMissingAssets(seenAssetIds, writes);
+        writes.drain();
+      }
+    } catch (RuntimeException e) {
+      // writes may have failed half-way, so do not trust the index for the next synchronization
+      if (assetsIndex != null) {
+        assetsIndexSuspect = true;
+      }
+      throw e;
+    } finally {
+      if (activeIndex != null) {
+        activeIndex.flush();
       }
-    });
+      // do not keep a prefetched inventory in memory until the next synchronization
+      activeIndex = assetsIndex;
+    }
+
+    if (full) {
+      fullSynchronizationRequested = false;
+    }
+    if (assetsProvider instanceof EntropyDataAssetsProviderIncremental) {
+      saveSynchronizationState(newHighWaterMark, full ? startTime : lastFullSynchronization);
+    }
+  }
+
+  private boolean isFullSynchronizationDue() {
+    if (!(assetsProvider instanceof EntropyDataAssetsProviderIncremental)) {
+      return true;
+    }
+    return highWaterMark == null
+        || lastFullSynchronization == null
+        || (assetsIndex != null && assetsIndexSuspect)
+        || fullSynchronizationRequested
+        || !Instant.now().isBefore(lastFullSynchronization.plus(fullSynchronizationInterval));
+  }
+
+  private void loadSynchronizationState() {
+    if (synchronizationStateLoaded || !(assetsProvider instanceof EntropyDataAssetsProviderIncremental)) {
+      return;
+    }
+    if (stateRepository != null) {
+      var state = stateRepository.getState();
+      if (state != null) {
+        highWaterMark = (String) state.get("assetsHighWaterMark");
+        var lastFull = (String) state.get("lastFullAssetsSynchronization");
+        lastFullSynchronization = lastFull != null ? Instant.parse(lastFull) : null;
+      }
+    }
+    synchronizationStateLoaded = true;
+  }
+
+  /**
+   * Saves the progress only after all writes of a synchronization have succeeded, so a failed synchronization is repeated
+   * from the previous high-water mark.
+   */
+  private void saveSynchronizationState(@Nullable String newHighWaterMark, @Nullable Instant newLastFullSynchronization) {
+    this.highWaterMark = newHighWaterMark;
+    this.lastFullSynchronization = newLastFullSynchronization;
+    if (stateRepository != null) {
+      // only update the own entries, so that a concurrent save of the event listener's lastEventId is not overwritten
+      putOrRemoveState("assetsHighWaterMark", newHighWaterMark);
+      putOrRemoveState("lastFullAssetsSynchronization", newLastFullSynchronization != null ? newLastFullSynchronization.toString() : null);
+    }
+  }
+
+  private void putOrRemoveState(String key, @Nullable String value) {
+    if (value != null) {
+      stateRepository.putState(key, value);
+    } else {
+      stateRepository.removeState(key);
+    }
+  }
+
+  /**
+   * Rebuilds the assets index from the paged list of all assets in Entropy Data.
+   * This is done automatically when the index is empty or when the last synchronization failed.
+   */
+  public void rebuildAssetsIndex() {
+    if (assetsIndex == null) {
+      throw new IllegalStateException("No assets index configured");
+    }
+    loadRemoteAssets(assetsIndex);
+  }
+
+  /**
+   * Streams all pages of the assets list (1000 assets per page) into the given index.
+   * Only the fingerprint of each owned asset is retained, so that memory stays bounded for large inventories.
+   */
+  private void loadRemoteAssets(EntropyDataAssetsIndex index) {
+    log.info("{}: Loading remote assets", connectorId);
+    index.clear();
+    forEachOwnedRemoteAsset(asset -> index.putFingerprint(asset.getId(), fingerprintOfRemoteAsset(asset)));
+    index.flush();
+    assetsIndexSuspect = false;
+    log.info("{}: Loaded {} remote assets", connectorId, index.size());
+  }
+
+  private void forEachOwnedRemoteAsset(Consumer<Asset> consumer) {
+    var filter = ownedAssetsFilter;
+    try (Stream<Asset> assets = client.streamAssets()) {
+      (filter != null ? assets.filter(filter) : assets).forEach(consumer);
+    }
+  }
+
+  /**
+   * Deletes all owned remote assets that have not been sent by the provider during the last full scan.
+   * The remote inventory is taken from the active index, or loaded with the paged assets list if there is none.
+   */
+  private void deleteMissingAssets(EntropyDataAssetIdSet seenAssetIds, AssetWrites writes) {
+    var missingAssetIds = new ArrayList<String>();
+    var remoteAssetsCount = new int[1];
+    var index = activeIndex;
+    if (index != null) {
+      remoteAssetsCount[0] = index.size();
+      for (String id : index.getAssetIds()) {
+        if (!seenAssetIds.contains(id)) {
+          missingAssetIds.add(id);
+        }
+      }
+    } else {
+      forEachOwnedRemoteAsset(asset -> {
+        remoteAssetsCount[0]++;
+        if (!seenAssetIds.contains(asset.getId())) {
+          missingAssetIds.add(asset.getId());
+        }
+      });
+    }
+
+    if (missingAssetIds.isEmpty()) {
+      log.debug("{}: No missing assets to delete", connectorId);
+      return;
+    }
+    if (missingAssetIds.size() > maxDeletionRatio * remoteAssetsCount[0]) {
+      log.error("{}: Aborting deletion of {} of {} remote assets, as this exceeds the maximum deletion ratio of {}",
+          connectorId, missingAssetIds.size(), remoteAssetsCount[0], maxDeletionRatio);
+      return;
+    }
+
+    log.info("{}: Deleting {} assets that are no longer provided", connectorId, missingAssetIds.size());
+    for (String id : missingAssetIds) {
+      writes.submit(id, () -> deleteAsset(id));
+    }
+  }
+
+  /**
+   * Marks the assets index as suspect, so that it is rebuilt before the next synchronization. Does nothing without an assets index.
+   */
+  public void invalidateAssetsIndex() {
+    if (assetsIndex != null) {
+      this.assetsIndexSuspect = true;
+    }
   }
 
   public Duration getDelay() {
@@ -81,11 +385,117 @@ public class EntropyDataAssetsSynchronizer {
     this.delay = delay;
   }
 
+  public EntropyDataAssetsIndex getAssetsIndex() {
+    return assetsIndex;
+  }
+
+  public void setAssetsIndex(EntropyDataAssetsIndex assetsIndex) {
+    this.assetsIndex = assetsIndex;
+    this.activeIndex = assetsIndex;
+  }
+
+  public boolean isPrefetchRemoteAssets() {
+    return prefetchRemoteAssets;
+  }
+
+  public void setPrefetchRemoteAssets(boolean prefetchRemoteAssets) {
+    this.prefetchRemoteAssets = prefetchRemoteAssets;
+  }
+
+  public boolean isDeleteMissingAssets() {
+    return deleteMissingAssets;
+  }
+
+  /**
+   * Enables the deletion of owned remote assets that the provider no longer sends.
+   *
+   * @throws IllegalStateException if no owned assets filter has been set with {@link #setOwnedAssetsFilter(Predicate)}
+   */
+  public void setDeleteMissingAssets(boolean deleteMissingAssets) {
+    if (deleteMissingAssets && ownedAssetsFilter == null) {
+      throw new IllegalStateException("Set an owned assets filter before enabling the deletion of missing assets");
+    }
+    this.deleteMissingAssets = deleteMissingAssets;
+  }
+
+  @Nullable
+  public Predicate<Asset> getOwnedAssetsFilter() {
+    return ownedAssetsFilter;
+  }
+
+  public void setOwnedAssetsFilter(Predicate<Asset> ownedAssetsFilter) {
+    this.ownedAssetsFilter = Objects.requireNonNull(ownedAssetsFilter, "ownedAssetsFilter must not be null");
+  }
+
+  public double getMaxDeletionRatio() {
+    return maxDeletionRatio;
+  }
+
+  public void setMaxDeletionRatio(double maxDeletionRatio) {
+    this.maxDeletionRatio = maxDeletionRatio;
+  }
+
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  public void setConcurrency(int concurrency) {
+    this.concurrency = concurrency;
+  }
+
+  @Nullable
+  public String getFingerprintProperty() {
+    return fingerprintProperty;
+  }
+
+  public void setFingerprintProperty(@Nullable String fingerprintProperty) {
+    this.fingerprintProperty = fingerprintProperty;
+  }
+
+  public Duration getFullSynchronizationInterval() {
+    return fullSynchronizationInterval;
+  }
+
+  public void setFullSynchronizationInterval(Duration fullSynchronizationInterval) {
+    this.fullSynchronizationInterval = Objects.requireNonNull(fullSynchronizationInterval, "fullSynchronizationInterval must not be null");
+  }
+
+  /**
+   * The high-water mark of the last successful synchronization of an EntropyDataAssetsProviderIncremental.
+   */
+  @Nullable
+  public String getHighWaterMark() {
+    return highWaterMark;
+  }
+
+  /**
+   * Makes the next synchronization a full synchronization, e.g., after the provider has missed changes.
+   */
+  public void requestFullSynchronization() {
+    this.fullSynchronizationRequested = true;
+  }
+
+  public int getMaxPendingWrites() {
+    return maxPendingWrites;
+  }
+
+  public void setMaxPendingWrites(int maxPendingWrites) {
+    this.maxPendingWrites = maxPendingWrites;
+  }
+
   public void saveAsset(Asset asset) {
+    var fingerprint = fingerprintOfProvidedAsset(asset);
+    var index = activeIndex;
+    if (index != null) {
+      saveAssetWithIndex(asset, fingerprint, index);
+      return;
+    }
+
     try {
       Asset existingAsset = this.client.getAssetsApi().getAsset(asset.getId());
-      if (Objects.deepEquals(asset, existingAsset)) {
-        log.info("Asset {} already exists and unchanged", asset.getId());
+      if (fingerprint.equals(fingerprintOfRemoteAsset(existingAsset))) {
+        log.debug("Asset {} already exists and unchanged", asset.getId());
+        metrics.recordAsset(connectorId, AssetOutcome.SKIPPED);
         return;
       }
     } catch (ApiException e) {
@@ -96,13 +506,139 @@ public class EntropyDataAssetsSynchronizer {
       }
     }
 
-    log.info("Saving asset {}", asset.getId());
+    writeAsset(asset, fingerprint);
+  }
+
+  private void saveAssetWithIndex(Asset asset, String fingerprint, EntropyDataAssetsIndex index) {
+    if (fingerprint.equals(index.getFingerprint(asset.getId()))) {
+      log.debug("Asset {} unchanged", asset.getId());
+      metrics.recordAsset(connectorId, AssetOutcome.SKIPPED);
+      return;
+    }
+
+    writeAsset(asset, fingerprint);
+    index.putFingerprint(asset.getId(), fingerprint);
+  }
+
+  private void writeAsset(Asset asset, String fingerprint) {
+    if (fingerprintProperty != null) {
+      asset = copy(asset).putCustomItem(fingerprintProperty, fingerprint);
+    }
+    log.debug("Saving asset {}", asset.getId());
     client.getAssetsApi().addAsset(asset.getId(), asset);
+    metrics.recordAsset(connectorId, AssetOutcome.WRITTEN);
+  }
+
+  /**
+   * The fingerprint of an asset of the provider, without the fingerprint property of a previous write of the same object.
+   */
+  private String fingerprintOfProvidedAsset(Asset asset) {
+    if (fingerprintProperty != null && asset.getCustom() != null && asset.getCustom().containsKey(fingerprintProperty)) {
+      var copy = copy(asset);
+      copy.getCustom().remove(fingerprintProperty);
+      asset = copy;
+    }
+    return EntropyDataAssetFingerprint.of(asset);
+  }
+
+  /**
+   * A deep copy of the asset, so that the asset of the provider is not modified. Copies all fields, also those added to the model later.
+   */
+  private Asset copy(Asset asset) {
+    return objectMapper.convertValue(asset, Asset.class);
+  }
+
+  /**
+   * The fingerprint that has been saved with the remote asset, or else the fingerprint of its content.
+   */
+  private String fingerprintOfRemoteAsset(Asset asset) {
+    if (fingerprintProperty != null && asset.getCustom() != null
+        && asset.getCustom().get(fingerprintProperty) instanceof String fingerprint) {
+      return fingerprint;
+    }
+    return EntropyDataAssetFingerprint.of(asset);
   }
 
   public void deleteAsset(String id) {
-    log.info("Deleting asset {}", id);
+    log.debug("Deleting asset {}", id);
     client.getAssetsApi().deleteAsset(id);
+    metrics.recordAsset(connectorId, AssetOutcome.DELETED);
+    var index = activeIndex;
+    if (index != null) {
+      index.removeFingerprint(id);
+    }
+  }
+
+  /**
+   * Executes the asset writes of one synchronization, either directly on the calling thread or in parallel.
+   * Writes for the same asset id are never reordered.
+   */
+  private class AssetWrites implements AutoCloseable {
+
+    private final EntropyDataKeyedExecutor executor;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    AssetWrites() {
+      this.executor = concurrency > 1
+          ? new EntropyDataKeyedExecutor(connectorId + "-assets", concurrency, Math.max(concurrency, maxPendingWrites))
+          : null;
+    }
+
+    void submit(String assetId, Runnable write) {
+      if (executor == null) {
+        write.run();
+        return;
+      }
+      throwIfFailed();
+      try {
+        executor.submit(assetId, () -> {
+          try {
+            write.run();
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            throw e;
+          }
+        });
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for pending asset writes", e);
+      }
+    }
+
+    /**
+     * Waits until all submitted writes have completed and rethrows the first failure.
+     */
+    void drain() {
+      if (executor != null) {
+        try {
+          executor.awaitCompletion();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for pending asset writes", e);
+        }
+      }
+      throwIfFailed();
+    }
+
+    private void throwIfFailed() {
+      var e = failure.get();
+      if (e != null) {
+        throw e;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (executor == null) {
+        return;
+      }
+      try {
+        executor.awaitCompletion();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      executor.close();
+    }
   }
 
 }
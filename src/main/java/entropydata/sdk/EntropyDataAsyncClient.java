@@ -0,0 +1,171 @@
+package entropydata.sdk;
+
+import entropydata.sdk.client.async.ApiClient;
+import entropydata.sdk.client.async.api.AccessApi;
+import entropydata.sdk.client.async.api.AssetsApi;
+import entropydata.sdk.client.async.api.ConnectorsApi;
+import entropydata.sdk.client.async.api.CostsApi;
+import entropydata.sdk.client.async.api.DataContractsApi;
+import entropydata.sdk.client.async.api.DataProductsApi;
+import entropydata.sdk.client.async.api.DefinitionsApi;
+import entropydata.sdk.client.async.api.EventsApi;
+import entropydata.sdk.client.async.api.LineageApi;
+import entropydata.sdk.client.async.api.SourceSystemsApi;
+import entropydata.sdk.client.async.api.TagsApi;
+import entropydata.sdk.client.async.api.TeamsApi;
+import entropydata.sdk.client.async.api.TestResultsApi;
+import entropydata.sdk.client.async.api.UsageApi;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A non-blocking variant of the EntropyDataClient. All API methods return a CompletableFuture, so that many requests can be
+ * in flight on a few threads.
+ * <p>
+ * The APIs are generated from the same OpenAPI specification and use the same model classes as the EntropyDataClient,
+ * but run on {@link java.net.http.HttpClient}. The EntropyDataRetryHandler of the EntropyDataClient does not apply,
+ * so callers should handle failed futures themselves.
+ */
+public class EntropyDataAsyncClient {
+
+  private final ApiClient apiClient;
+
+  private final AccessApi accessApi;
+  private final AssetsApi assetsApi;
+  private final CostsApi costsApi;
+  private final DataContractsApi dataContractsApi;
+  private final DataProductsApi dataProductsApi;
+  private final DefinitionsApi definitionsApi;
+  private final EventsApi eventsApi;
+  private final SourceSystemsApi sourceSystemsApi;
+  private final TagsApi tagsApi;
+  private final TeamsApi teamsApi;
+  private final TestResultsApi testResultsApi;
+  private final ConnectorsApi connectorsApi;
+  private final UsageApi usageApi;
+  private final LineageApi lineageApi;
+
+  public EntropyDataAsyncClient(String host, String apiKey) {
+    this(host, apiKey, Duration.ofSeconds(10), Duration.ofSeconds(60));
+  }
+
+  public EntropyDataAsyncClient(String host, String apiKey, Duration connectTimeout, Duration responseTimeout) {
+    this(host, connectTimeout, responseTimeout, apiKeyHeader(apiKey));
+  }
+
+  /**
+   * @param requestInterceptor adds the credentials to every request
+   */
+  EntropyDataAsyncClient(String host, Duration connectTimeout, Duration responseTimeout, Consumer<HttpRequest.Builder> requestInterceptor) {
+    Objects.requireNonNull(host, "host must not be null");
+    var httpClient = HttpClient.newBuilder()
+        .connectTimeout(Objects.requireNonNull(connectTimeout, "connectTimeout must not be null"))
+        .build();
+    var apiClient = new SharedHttpClientApiClient(httpClient);
+    apiClient.updateBaseUri(host);
+    apiClient.setReadTimeout(Objects.requireNonNull(responseTimeout, "responseTimeout must not be null"));
+    apiClient.setRequestInterceptor(Objects.requireNonNull(requestInterceptor, "requestInterceptor must not be null"));
+    this.apiClient = apiClient;
+
+    this.accessApi = new AccessApi(apiClient);
+    this.assetsApi = new AssetsApi(apiClient);
+    this.costsApi = new CostsApi(apiClient);
+    this.dataContractsApi = new DataContractsApi(apiClient);
+    this.dataProductsApi = new DataProductsApi(apiClient);
+    this.definitionsApi = new DefinitionsApi(apiClient);
+    this.eventsApi = new EventsApi(apiClient);
+    this.sourceSystemsApi = new SourceSystemsApi(apiClient);
+    this.tagsApi = new TagsApi(apiClient);
+    this.teamsApi = new TeamsApi(apiClient);
+    this.testResultsApi = new TestResultsApi(apiClient);
+    this.connectorsApi = new ConnectorsApi(apiClient);
+    this.usageApi = new UsageApi(apiClient);
+    this.lineageApi = new LineageApi(apiClient);
+  }
+
+  private static Consumer<HttpRequest.Builder> apiKeyHeader(String apiKey) {
+    Objects.requireNonNull(apiKey, "apiKey must not be null");
+    return request -> request.header("x-api-key", apiKey);
+  }
+
+  public ApiClient getApiClient() {
+    return apiClient;
+  }
+
+  public AccessApi getAccessApi() {
+    return accessApi;
+  }
+
+  public AssetsApi getAssetsApi() {
+    return assetsApi;
+  }
+
+  public CostsApi getCostsApi() {
+    return costsApi;
+  }
+
+  public DataContractsApi getDataContractsApi() {
+    return dataContractsApi;
+  }
+
+  public DataProductsApi getDataProductsApi() {
+    return dataProductsApi;
+  }
+
+  public DefinitionsApi getDefinitionsApi() {
+    return definitionsApi;
+  }
+
+  public EventsApi getEventsApi() {
+    return eventsApi;
+  }
+
+  public SourceSystemsApi getSourceSystemsApi() {
+    return sourceSystemsApi;
+  }
+
+  public TagsApi getTagsApi() {
+    return tagsApi;
+  }
+
+  public TeamsApi getTeamsApi() {
+    return teamsApi;
+  }
+
+  public TestResultsApi getTestResultsApi() {
+    return testResultsApi;
+  }
+
+  public ConnectorsApi getConnectorsApi() {
+    return connectorsApi;
+  }
+
+  public UsageApi getUsageApi() {
+    return usageApi;
+  }
+
+  public LineageApi getLineageApi() {
+    return lineageApi;
+  }
+
+  /**
+   * The generated ApiClient builds a new HttpClient for every API, each with its own connection pool and selector thread.
+   */
+  private static class SharedHttpClientApiClient extends ApiClient {
+
+    private final HttpClient httpClient;
+
+    SharedHttpClientApiClient(HttpClient httpClient) {
+      this.httpClient = httpClient;
+    }
+
+    @Override
+    public HttpClient getHttpClient() {
+      return httpClient;
+    }
+  }
+
+}
@@ -0,0 +1,97 @@
+package entropydata.sdk;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Defines when the EntropyDataEventListener saves the lastEventId to the state repository.
+ * <p>
+ * A checkpoint is saved as soon as any of the configured conditions is met, and always when the listener is stopped.
+ * Events that have been processed after the last checkpoint are processed again after a restart (at-least-once delivery),
+ * so the conditions bound the replay window.
+ */
+public final class EntropyDataCheckpointPolicy {
+
+  private final int maxEvents;
+  private final Duration maxInterval;
+  private final boolean endOfBatch;
+
+  private EntropyDataCheckpointPolicy(int maxEvents, Duration maxInterval, boolean endOfBatch) {
+    this.maxEvents = maxEvents;
+    this.maxInterval = maxInterval;
+    this.endOfBatch = endOfBatch;
+  }
+
+  /**
+   * Saves a checkpoint after every processed event.
+   */
+  public static EntropyDataCheckpointPolicy everyEvent() {
+    return everyEvents(1);
+  }
+
+  /**
+   * Saves a checkpoint after the given number of processed events.
+   */
+  public static EntropyDataCheckpointPolicy everyEvents(int maxEvents) {
+    if (maxEvents < 1) {
+      throw new IllegalArgumentException("maxEvents must be positive");
+    }
+    return new EntropyDataCheckpointPolicy(maxEvents, null, false);
+  }
+
+  /**
+   * Saves a checkpoint when the given time has passed since the last checkpoint.
+   */
+  public static EntropyDataCheckpointPolicy interval(Duration maxInterval) {
+    return new EntropyDataCheckpointPolicy(0, Objects.requireNonNull(maxInterval, "maxInterval must not be null"), false);
+  }
+
+  /**
+   * Saves a checkpoint after all events of a fetched page have been processed.
+   */
+  public static EntropyDataCheckpointPolicy endOfBatch() {
+    return new EntropyDataCheckpointPolicy(0, null, true);
+  }
+
+  /**
+   * The default policy saves a checkpoint at the end of every page, but at least every 100 events or every 10 seconds.
+   */
+  public static EntropyDataCheckpointPolicy defaultPolicy() {
+    return endOfBatch().orEveryEvents(100).orInterval(Duration.ofSeconds(10));
+  }
+
+  public EntropyDataCheckpointPolicy orEveryEvents(int maxEvents) {
+    return new EntropyDataCheckpointPolicy(everyEvents(maxEvents).maxEvents, this.maxInterval, this.endOfBatch);
+  }
+
+  public EntropyDataCheckpointPolicy orInterval(Duration maxInterval) {
+    return new EntropyDataCheckpointPolicy(this.maxEvents, interval(maxInterval).maxInterval, this.endOfBatch);
+  }
+
+  public EntropyDataCheckpointPolicy orEndOfBatch() {
+    return new EntropyDataCheckpointPolicy(this.maxEvents, this.maxInterval, true);
+  }
+
+  /**
+   * The number of events after which a checkpoint is saved, or 0 if not limited by events.
+   */
+  public int getMaxEvents() {
+    return maxEvents;
+  }
+
+  /**
+   * The time after which a checkpoint is saved, or null if not limited by time.
+   */
+  public Duration getMaxInterval() {
+    return maxInterval;
+  }
+
+  public boolean isEndOfBatch() {
+    return endOfBatch;
+  }
+
+  @Override
+  public String toString() {
+    return "EntropyDataCheckpointPolicy{maxEvents=" + maxEvents + ", maxInterval=" + maxInterval + ", endOfBatch=" + endOfBatch + "}";
+  }
+}
@@ -1,6 +1,9 @@
 package entropydata.sdk;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import entropydata.sdk.client.ApiClient;
+import entropydata.sdk.client.ApiException;
+import entropydata.sdk.client.Pair;
 import entropydata.sdk.client.api.AccessApi;
 import entropydata.sdk.client.api.AssetsApi;
 import entropydata.sdk.client.api.ConnectorsApi;
@@ -9,14 +12,46 @@ import entropydata.sdk.client.api.DataContractsApi;
 import entropydata.sdk.client.api.DataProductsApi;
 import entropydata.sdk.client.api.DefinitionsApi;
 import entropydata.sdk.client.api.EventsApi;
+import entropydata.sdk.client.api.LineageApi;
 import entropydata.sdk.client.api.SourceSystemsApi;
 import entropydata.sdk.client.api.TagsApi;
 import entropydata.sdk.client.api.TeamsApi;
 import entropydata.sdk.client.api.TestResultsApi;
+import entropydata.sdk.client.api.UsageApi;
+import entropydata.sdk.client.model.Access;
+import entropydata.sdk.client.model.Asset;
+import entropydata.sdk.client.model.DataContract;
+import entropydata.sdk.client.model.DataProduct;
+import entropydata.sdk.client.model.Team;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
 
-public class EntropyDataClient {
+public class EntropyDataClient implements AutoCloseable {
 
-  private final ApiClient apiClient;
+  private static final String[] authNames = {"ApiKeyAuth", "BearerAuth"};
+
+  private final PageAwareApiClient apiClient;
+  private final EntropyDataHttpTransport transport;
+  private final boolean ownsTransport;
+  private final Duration connectTimeout;
+  private final Duration responseTimeout;
+  private final EntropyDataMetrics metrics;
+  private EntropyDataAsyncClient asyncClient;
 
   private final AccessApi accessApi;
   private final AssetsApi assetsApi;
@@ -30,11 +65,24 @@ public class EntropyDataClient {
   private final TeamsApi teamsApi;
   private final TestResultsApi testResultsApi;
   private final ConnectorsApi connectorsApi;
+  private final UsageApi usageApi;
+  private final LineageApi lineageApi;
 
   public EntropyDataClient(String host, String apiKey) {
-    var apiClient = new ApiClient();
-    apiClient.setBasePath(host);
-    apiClient.setApiKey(apiKey);
+    this(builder().host(host).apiKey(apiKey));
+  }
+
+  private EntropyDataClient(Builder builder) {
+    this.ownsTransport = builder.transport == null;
+    this.transport = ownsTransport ? builder.transportBuilder.build() : builder.transport;
+    this.metrics = builder.metrics;
+    var apiClient = metrics != EntropyDataMetrics.NOOP
+        ? new InstrumentedApiClient(transport.getHttpClient(), metrics)
+        : new PageAwareApiClient(transport.getHttpClient());
+    apiClient.setBasePath(Objects.requireNonNull(builder.host, "host must not be null"));
+    apiClient.setApiKey(builder.apiKey);
+    this.connectTimeout = builder.connectTimeout;
+    this.responseTimeout = builder.responseTimeout;
     this.apiClient = apiClient;
 
     this.accessApi = new AccessApi(apiClient);
@@ -49,6 +97,12 @@ public class EntropyDataClient {
     this.teamsApi = new TeamsApi(apiClient);
     this.testResultsApi = new TestResultsApi(apiClient);
     this.connectorsApi = new ConnectorsApi(apiClient);
+    this.usageApi = new UsageApi(apiClient);
+    this.lineageApi = new LineageApi(apiClient);
+  }
+
+  public static Builder builder() {
+    return new Builder();
   }
 
   public ApiClient getApiClient() {
@@ -102,4 +156,431 @@ public class EntropyDataClient {
   public ConnectorsApi getConnectorsApi() {
     return connectorsApi;
   }
+
+  public UsageApi getUsageApi() {
+    return usageApi;
+  }
+
+  public LineageApi getLineageApi() {
+    return lineageApi;
+  }
+
+  /**
+   * Checks the Link header of the response to the last request on the current thread for a rel="next" entry.
+   * List endpoints return a next link as long as there are more pages available. A response without headers, such as
+   * 204 No Content, has no next page.
+   */
+  public boolean hasNextPage() {
+    return apiClient.hasNextPage();
+  }
+
+  /**
+   * The non-blocking variant of this client for the same host, created on first use.
+   * <p>
+   * Every request uses the credentials that are configured in the {@link #getApiClient() ApiClient} at that time.
+   * The async client has its own connections, so the connection pool and the retry handler of the transport do not apply.
+   */
+  public synchronized EntropyDataAsyncClient getAsyncClient() {
+    if (asyncClient == null) {
+      asyncClient = new EntropyDataAsyncClient(apiClient.getBasePath(), connectTimeout, responseTimeout,
+          request -> authenticationHeaders().forEach(request::header));
+    }
+    return asyncClient;
+  }
+
+  public EntropyDataHttpTransport getTransport() {
+    return transport;
+  }
+
+  /**
+   * The metrics of this client, which are also used by the event listeners and assets synchronizers of this client.
+   */
+  public EntropyDataMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Closes the HTTP transport, unless it has been passed to the builder as a shared transport.
+   */
+  @Override
+  public void close() {
+    if (ownsTransport) {
+      transport.close();
+    }
+  }
+
+  /**
+   * Gets a data product as typed DataProduct, instead of the untyped {@code Object} of {@link DataProductsApi#getDataProduct(String)}.
+   */
+  public DataProduct getDataProduct(String id) {
+    Objects.requireNonNull(id, "id must not be null");
+    return get("/api/dataproducts/" + apiClient.escapeString(id), new ArrayList<>(), "application/json",
+        new TypeReference<DataProduct>() {});
+  }
+
+  /**
+   * Streams all assets. Pages are fetched lazily, and the next page is prefetched while the current page is consumed.
+   * Close the stream when it is not consumed to the end.
+   */
+  public Stream<Asset> streamAssets() {
+    return EntropyDataPageIterator.stream(page -> toPage(assetsApi.getAssets(page)));
+  }
+
+  /**
+   * Streams all data products.
+   *
+   * @see #streamAssets()
+   */
+  public Stream<DataProduct> streamDataProducts() {
+    return EntropyDataPageIterator.stream(page -> toPage(get("/api/dataproducts", apiClient.parameterToPair("p", page),
+        "application/json", new TypeReference<List<DataProduct>>() {})));
+  }
+
+  /**
+   * Streams all data contracts.
+   *
+   * @see #streamAssets()
+   */
+  public Stream<DataContract> streamDataContracts() {
+    return EntropyDataPageIterator.stream(page -> toPage(dataContractsApi.getDataContracts(null, null, null, null, null, null, null, null, page)));
+  }
+
+  /**
+   * Streams all access resources.
+   *
+   * @see #streamAssets()
+   */
+  public Stream<Access> streamAccess() {
+    return EntropyDataPageIterator.stream(page -> toPage(accessApi.getAccessList(page, null, null, null, null)));
+  }
+
+  /**
+   * Streams all teams.
+   *
+   * @see #streamAssets()
+   */
+  public Stream<Team> streamTeams() {
+    return EntropyDataPageIterator.stream(page -> toPage(teamsApi.getTeams(page, null)));
+  }
+
+  /**
+   * Streams the items of any paged list endpoint, e.g., with filters:
+   * {@code client.stream(page -> client.getTeamsApi().getTeams(page, email))}.
+   *
+   * @param pageFetcher fetches the page with the given number, starting at 0
+   * @see #streamAssets()
+   */
+  public <T> Stream<T> stream(IntFunction<List<T>> pageFetcher) {
+    return EntropyDataPageIterator.stream(page -> toPage(pageFetcher.apply(page)));
+  }
+
+  private <T> EntropyDataPageIterator.Page<T> toPage(List<T> items) {
+    if (items == null) {
+      // 204 No Content
+      return new EntropyDataPageIterator.Page<>(List.of(), false);
+    }
+    return new EntropyDataPageIterator.Page<>(items, hasNextPage());
+  }
+
+  /**
+   * Polls the events feed like {@link EventsApi#pollEvents(String, Boolean)}, but returns the undecoded response body,
+   * so that the events can be decoded in a single pass.
+   */
+  byte[] pollEventsAsBytes(String lastEventId, boolean longPolling) throws ApiException {
+    List<Pair> queryParams = new ArrayList<>();
+    queryParams.addAll(apiClient.parameterToPair("lastEventId", lastEventId));
+    queryParams.addAll(apiClient.parameterToPair("longPolling", longPolling));
+    return get("/api/events", queryParams, "application/cloudevents-batch+json", new TypeReference<byte[]>() {});
+  }
+
+  /**
+   * Posts a JSON body that has already been serialized and compressed with gzip, e.g., a batch of the EntropyDataTracesExporter.
+   * The generated APIs serialize the body to a String first.
+   */
+  void postGzippedJson(String path, byte[] gzippedJson) throws ApiException {
+    var requestBuilder = ClassicRequestBuilder.post(apiClient.getBasePath() + path)
+        .addHeader(HttpHeaders.ACCEPT, "application/json")
+        .setEntity(new ByteArrayEntity(gzippedJson, ContentType.APPLICATION_JSON, "gzip"));
+    authenticationHeaders().forEach(requestBuilder::addHeader);
+    var request = requestBuilder.build();
+    long start = System.nanoTime();
+    int status = 0;
+    try {
+      status = transport.getHttpClient().execute(request, response -> {
+        if (response.getCode() >= 300) {
+          var body = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : null;
+          throw new ApiException(response.getCode(), "POST " + path + " failed", null, body);
+        }
+        EntityUtils.consume(response.getEntity());
+        return response.getCode();
+      });
+    } catch (ApiException e) {
+      status = e.getCode();
+      throw e;
+    } catch (IOException e) {
+      throw new ApiException(e);
+    } finally {
+      metrics.recordRequest(InstrumentedApiClient.api(path), "POST", status, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * The headers of the API key and bearer token that are configured in the ApiClient, for requests that bypass the generated APIs.
+   */
+  private Map<String, String> authenticationHeaders() {
+    var headers = new HashMap<String, String>();
+    for (var authName : authNames) {
+      var authentication = apiClient.getAuthentication(authName);
+      if (authentication != null) {
+        authentication.applyToParams(new ArrayList<>(), headers, new HashMap<>());
+      }
+    }
+    return headers;
+  }
+
+  /**
+   * A GET request with a return type that differs from the generated API, e.g., typed instead of {@code List<Object>}.
+   */
+  private <T> T get(String path, List<Pair> queryParams, String accept, TypeReference<T> returnType) throws ApiException {
+    return apiClient.invokeAPI(
+        path,
+        "GET",
+        queryParams,
+        new ArrayList<>(),
+        "",
+        null,
+        new HashMap<>(),
+        new HashMap<>(),
+        new HashMap<>(),
+        apiClient.selectHeaderAccept(new String[] {accept}),
+        apiClient.selectHeaderContentType(new String[] {}),
+        authNames,
+        returnType
+    );
+  }
+
+  /**
+   * Keeps the status and whether there is a next page of the response to the last request on the current thread. Both are read
+   * from the response when it is processed and reset before every request, so a response without headers, e.g., 204 No Content,
+   * or a failed connection, never reports the Link header of an earlier page.
+   */
+  private static class PageAwareApiClient extends ApiClient {
+
+    private final ThreadLocal<Integer> responseStatus = ThreadLocal.withInitial(() -> 0);
+    private final ThreadLocal<Boolean> nextPage = ThreadLocal.withInitial(() -> false);
+
+    PageAwareApiClient(CloseableHttpClient httpClient) {
+      super(httpClient);
+    }
+
+    int getResponseStatus() {
+      return responseStatus.get();
+    }
+
+    boolean hasNextPage() {
+      return nextPage.get();
+    }
+
+    @Override
+    public <T> T invokeAPI(String path, String method, List<Pair> queryParams, List<Pair> collectionQueryParams,
+        String urlQueryDeepObject, Object body, Map<String, String> headerParams, Map<String, String> cookieParams,
+        Map<String, Object> formParams, String accept, String contentType, String[] authNames, TypeReference<T> returnType)
+        throws ApiException {
+      lastResponseHeaders.remove();
+      responseStatus.set(0);
+      nextPage.set(false);
+      return super.invokeAPI(path, method, queryParams, collectionQueryParams, urlQueryDeepObject, body, headerParams,
+          cookieParams, formParams, accept, contentType, authNames, returnType);
+    }
+
+    @Override
+    protected <T> T processResponse(CloseableHttpResponse response, TypeReference<T> returnType)
+        throws ApiException, IOException, ParseException {
+      responseStatus.set(response.getCode());
+      nextPage.set(hasNextLink(response));
+      return super.processResponse(response, returnType);
+    }
+
+    private static boolean hasNextLink(CloseableHttpResponse response) {
+      for (var header : response.getHeaders("Link")) {
+        if (header.getValue().replace(" ", "").replace("\"", "").toLowerCase().contains("rel=next")) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Records the duration and status of every API request.
+   */
+  private static class InstrumentedApiClient extends PageAwareApiClient {
+
+    private final EntropyDataMetrics metrics;
+
+    InstrumentedApiClient(CloseableHttpClient httpClient, EntropyDataMetrics metrics) {
+      super(httpClient);
+      this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T invokeAPI(String path, String method, List<Pair> queryParams, List<Pair> collectionQueryParams,
+        String urlQueryDeepObject, Object body, Map<String, String> headerParams, Map<String, String> cookieParams,
+        Map<String, Object> formParams, String accept, String contentType, String[] authNames, TypeReference<T> returnType)
+        throws ApiException {
+      long start = System.nanoTime();
+      int status = 0;
+      try {
+        T result = super.invokeAPI(path, method, queryParams, collectionQueryParams, urlQueryDeepObject, body, headerParams,
+            cookieParams, formParams, accept, contentType, authNames, returnType);
+        status = getResponseStatus();
+        return result;
+      } catch (ApiException e) {
+        status = e.getCode();
+        throw e;
+      } finally {
+        metrics.recordRequest(api(path), method, status, System.nanoTime() - start);
+      }
+    }
+
+    /**
+     * The first path segment after /api/ or /api/v1/, so that the number of distinct values stays small.
+     */
+    static String api(String path) {
+      var start = path.startsWith("/api/v1/") ? "/api/v1/".length()
+          : path.startsWith("/api/") ? "/api/".length() : path.startsWith("/") ? 1 : 0;
+      var end = path.indexOf('/', start);
+      return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+  }
+
+  /**
+   * Configures an EntropyDataClient. Either the connection settings or a shared transport can be set.
+   */
+  public static class Builder {
+
+    private String host;
+    private String apiKey;
+    private EntropyDataHttpTransport transport;
+    private final EntropyDataHttpTransport.Builder transportBuilder = EntropyDataHttpTransport.builder();
+    private boolean transportConfigured = false;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration responseTimeout = Duration.ofSeconds(60);
+    private EntropyDataMetrics metrics = EntropyDataMetrics.NOOP;
+
+    private Builder() {
+    }
+
+    public Builder host(String host) {
+      this.host = host;
+      return this;
+    }
+
+    public Builder apiKey(String apiKey) {
+      this.apiKey = apiKey;
+      return this;
+    }
+
+    /**
+     * Uses a transport that is shared with other clients. The transport is not closed when the client is closed.
+     */
+    public Builder transport(EntropyDataHttpTransport transport) {
+      this.transport = Objects.requireNonNull(transport, "transport must not be null");
+      return this;
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#maxConnections(int)
+     */
+    public Builder maxConnections(int maxConnections) {
+      transportBuilder.maxConnections(maxConnections);
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#maxConnectionsPerRoute(int)
+     */
+    public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+      transportBuilder.maxConnectionsPerRoute(maxConnectionsPerRoute);
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#keepAlive(Duration)
+     */
+    public Builder keepAlive(Duration keepAlive) {
+      transportBuilder.keepAlive(keepAlive);
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#connectTimeout(Duration)
+     */
+    public Builder connectTimeout(Duration connectTimeout) {
+      transportBuilder.connectTimeout(connectTimeout);
+      this.connectTimeout = connectTimeout;
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#connectionRequestTimeout(Duration)
+     */
+    public Builder connectionRequestTimeout(Duration connectionRequestTimeout) {
+      transportBuilder.connectionRequestTimeout(connectionRequestTimeout);
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#responseTimeout(Duration)
+     */
+    public Builder responseTimeout(Duration responseTimeout) {
+      transportBuilder.responseTimeout(responseTimeout);
+      this.responseTimeout = responseTimeout;
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#responseCompression(boolean)
+     */
+    public Builder responseCompression(boolean responseCompression) {
+      transportBuilder.responseCompression(responseCompression);
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#requestCompression(boolean)
+     */
+    public Builder requestCompression(boolean requestCompression) {
+      transportBuilder.requestCompression(requestCompression);
+      return configured();
+    }
+
+    /**
+     * @see EntropyDataHttpTransport.Builder#retryHandler(EntropyDataRetryHandler)
+     */
+    public Builder retryHandler(EntropyDataRetryHandler retryHandler) {
+      transportBuilder.retryHandler(retryHandler);
+      return configured();
+    }
+
+    /**
+     * Records request metrics, and event and asset metrics of the connectors that use this client. Default: none.
+     */
+    public Builder metrics(EntropyDataMetrics metrics) {
+      this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+      return this;
+    }
+
+    public EntropyDataClient build() {
+      if (transport != null && transportConfigured) {
+        throw new IllegalStateException("Connection settings cannot be combined with a shared transport, configure the transport instead");
+      }
+      return new EntropyDataClient(this);
+    }
+
+    private Builder configured() {
+      this.transportConfigured = true;
+      return this;
+    }
+  }
 }
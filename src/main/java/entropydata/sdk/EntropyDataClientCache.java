@@ -0,0 +1,335 @@
+package entropydata.sdk;
+
+import entropydata.sdk.client.model.DataContract;
+import entropydata.sdk.client.model.DataContractDeletedEvent;
+import entropydata.sdk.client.model.DataContractUpdatedEvent;
+import entropydata.sdk.client.model.DataProduct;
+import entropydata.sdk.client.model.DataProductDeletedEvent;
+import entropydata.sdk.client.model.DataProductUpdatedEvent;
+import entropydata.sdk.client.model.Definition;
+import entropydata.sdk.client.model.DefinitionDeletedEvent;
+import entropydata.sdk.client.model.DefinitionUpdatedEvent;
+import entropydata.sdk.client.model.OutputPortCreatedEvent;
+import entropydata.sdk.client.model.OutputPortDeletedEvent;
+import entropydata.sdk.client.model.OutputPortUpdatedEvent;
+import entropydata.sdk.client.model.SourceSystem;
+import entropydata.sdk.client.model.SourceSystemDeletedEvent;
+import entropydata.sdk.client.model.SourceSystemUpdatedEvent;
+import entropydata.sdk.client.model.Tag;
+import entropydata.sdk.client.model.TagDeletedEvent;
+import entropydata.sdk.client.model.TagUpdatedEvent;
+import entropydata.sdk.client.model.Team;
+import entropydata.sdk.client.model.TeamDeletedEvent;
+import entropydata.sdk.client.model.TeamUpdatedEvent;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded read-through cache for the getters of an EntropyDataClient.
+ * <p>
+ * Entries expire after the time to live, and the least recently used entries are evicted when the cache exceeds the
+ * maximum size or the maximum weight. When the cache is attached to an EntropyDataEventListener, entries are invalidated
+ * as soon as the matching Updated or Deleted event arrives, so the time to live only bounds the staleness when no
+ * listener is attached or events are delayed.
+ *
+ * <pre>{@code
+ * var cache = new EntropyDataClientCache(client);
+ * cache.setMaximumSize(5_000);
+ * eventListener.addEventHandler(cache);
+ * }</pre>
+ * <p>
+ * The returned objects are shared and must not be modified.
+ */
+public class EntropyDataClientCache implements EntropyDataEventHandler {
+
+  private enum Type {
+    DATA_PRODUCT, DATA_CONTRACT, TEAM, DEFINITION, TAG, SOURCE_SYSTEM
+  }
+
+  private record Key(Type type, String id) {
+  }
+
+  private record Entry(Object value, long weight, long expiresAt) {
+  }
+
+  /**
+   * A snapshot of the cache statistics. Evictions count entries removed for size, weight, or expiry, but not invalidations.
+   */
+  public record Stats(long hitCount, long missCount, long evictionCount, long invalidationCount, long size, long weight) {
+
+    public double hitRate() {
+      long requests = hitCount + missCount;
+      return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+  }
+
+  private final EntropyDataClient client;
+
+  private long maximumSize = 10_000;
+  private long maximumWeight = Long.MAX_VALUE;
+  private ToLongFunction<Object> weigher = value -> 1;
+  private Duration timeToLive = Duration.ofMinutes(5);
+
+  // guarded by this
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<Key, Object> loading = new HashMap<>(); // a load may only store its result if it has not been invalidated meanwhile
+  private long weight = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private long invalidationCount = 0;
+
+  public EntropyDataClientCache(EntropyDataClient client) {
+    this.client = Objects.requireNonNull(client, "client must not be null");
+  }
+
+  public DataProduct getDataProduct(String id) {
+    return get(Type.DATA_PRODUCT, id, () -> client.getDataProduct(id));
+  }
+
+  public DataContract getDataContract(String id) {
+    return get(Type.DATA_CONTRACT, id, () -> client.getDataContractsApi().getDataContract(id));
+  }
+
+  public Team getTeam(String id) {
+    return get(Type.TEAM, id, () -> client.getTeamsApi().getTeam(id));
+  }
+
+  public Definition getDefinition(String id) {
+    return get(Type.DEFINITION, id, () -> client.getDefinitionsApi().getDefinition(id));
+  }
+
+  public Tag getTag(String id) {
+    return get(Type.TAG, id, () -> client.getTagsApi().getTag(id));
+  }
+
+  public SourceSystem getSourceSystem(String id) {
+    return get(Type.SOURCE_SYSTEM, id, () -> client.getSourceSystemsApi().getSourceSystem(id));
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public synchronized void invalidateAll() {
+    invalidationCount += entries.size();
+    entries.clear();
+    loading.clear();
+    weight = 0;
+  }
+
+  public synchronized Stats getStats() {
+    return new Stats(hitCount, missCount, evictionCount, invalidationCount, entries.size(), weight);
+  }
+
+  @Override
+  public void onDataProductUpdatedEvent(DataProductUpdatedEvent event) {
+    invalidate(Type.DATA_PRODUCT, event.getId());
+  }
+
+  @Override
+  public void onDataProductDeletedEvent(DataProductDeletedEvent event) {
+    invalidate(Type.DATA_PRODUCT, event.getId());
+  }
+
+  // output ports are part of the data product, and output port events carry the id of the data product
+  @Override
+  public void onOutputPortCreatedEvent(OutputPortCreatedEvent event) {
+    invalidate(Type.DATA_PRODUCT, event.getId());
+  }
+
+  @Override
+  public void onOutputPortUpdatedEvent(OutputPortUpdatedEvent event) {
+    invalidate(Type.DATA_PRODUCT, event.getId());
+  }
+
+  @Override
+  public void onOutputPortDeletedEvent(OutputPortDeletedEvent event) {
+    invalidate(Type.DATA_PRODUCT, event.getId());
+  }
+
+  @Override
+  public void onDataContractUpdatedEvent(DataContractUpdatedEvent event) {
+    invalidate(Type.DATA_CONTRACT, event.getId());
+  }
+
+  @Override
+  public void onDataContractDeletedEvent(DataContractDeletedEvent event) {
+    invalidate(Type.DATA_CONTRACT, event.getId());
+  }
+
+  @Override
+  public void onTeamUpdatedEvent(TeamUpdatedEvent event) {
+    invalidate(Type.TEAM, event.getId());
+  }
+
+  @Override
+  public void onTeamDeletedEvent(TeamDeletedEvent event) {
+    invalidate(Type.TEAM, event.getId());
+  }
+
+  @Override
+  public void onDefinitionUpdatedEvent(DefinitionUpdatedEvent event) {
+    invalidate(Type.DEFINITION, event.getId());
+  }
+
+  @Override
+  public void onDefinitionDeletedEvent(DefinitionDeletedEvent event) {
+    invalidate(Type.DEFINITION, event.getId());
+  }
+
+  @Override
+  public void onTagUpdatedEvent(TagUpdatedEvent event) {
+    invalidate(Type.TAG, event.getId());
+  }
+
+  @Override
+  public void onTagDeletedEvent(TagDeletedEvent event) {
+    invalidate(Type.TAG, event.getId());
+  }
+
+  @Override
+  public void onSourceSystemUpdatedEvent(SourceSystemUpdatedEvent event) {
+    invalidate(Type.SOURCE_SYSTEM, event.getId());
+  }
+
+  @Override
+  public void onSourceSystemDeletedEvent(SourceSystemDeletedEvent event) {
+    invalidate(Type.SOURCE_SYSTEM, event.getId());
+  }
+
+  /**
+   * Loads the value outside the lock, so that a slow request does not block hits on other entries.
+   * Concurrent misses on the same key may load the value more than once.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T get(Type type, String id, Supplier<T> loader) {
+    Objects.requireNonNull(id, "id must not be null");
+    var key = new Key(type, id);
+    var token = new Object();
+    synchronized (this) {
+      var entry = entries.get(key);
+      if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+        hitCount++;
+        return (T) entry.value();
+      }
+      if (entry != null) {
+        remove(key);
+        evictionCount++;
+      }
+      missCount++;
+      loading.put(key, token);
+    }
+
+    T value;
+    try {
+      value = loader.get();
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        loading.remove(key, token);
+      }
+      throw e;
+    }
+    put(key, value, token);
+    return value;
+  }
+
+  private synchronized void put(Key key, Object value, Object token) {
+    if (!loading.remove(key, token) || value == null) {
+      // invalidated or loaded again while the request was running
+      return;
+    }
+    long entryWeight = Math.max(0, weigher.applyAsLong(value));
+    if (entryWeight > maximumWeight) {
+      return;
+    }
+    remove(key);
+    entries.put(key, new Entry(value, entryWeight, System.nanoTime() + timeToLive.toNanos()));
+    weight += entryWeight;
+    evict();
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while ((entries.size() > maximumSize || weight > maximumWeight) && iterator.hasNext()) {
+      var eldest = iterator.next();
+      iterator.remove();
+      weight -= eldest.getValue().weight();
+      evictionCount++;
+    }
+  }
+
+  private void remove(Key key) {
+    var entry = entries.remove(key);
+    if (entry != null) {
+      weight -= entry.weight();
+    }
+  }
+
+  private synchronized void invalidate(Type type, String id) {
+    if (id == null) {
+      return;
+    }
+    var key = new Key(type, id);
+    if (entries.containsKey(key)) {
+      remove(key);
+      invalidationCount++;
+    }
+    loading.remove(key);
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * The maximum number of entries. Default: 10,000.
+   */
+  public synchronized void setMaximumSize(long maximumSize) {
+    if (maximumSize < 0) {
+      throw new IllegalArgumentException("maximumSize must not be negative");
+    }
+    this.maximumSize = maximumSize;
+    evict();
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  /**
+   * The maximum total weight of all entries, as computed by the weigher. Default: unlimited.
+   */
+  public synchronized void setMaximumWeight(long maximumWeight) {
+    if (maximumWeight < 0) {
+      throw new IllegalArgumentException("maximumWeight must not be negative");
+    }
+    this.maximumWeight = maximumWeight;
+    evict();
+  }
+
+  /**
+   * Computes the weight of a cached object, e.g., an estimate of its size in bytes. Applies to entries added afterwards.
+   * Default: 1 for every object.
+   */
+  public synchronized void setWeigher(ToLongFunction<Object> weigher) {
+    this.weigher = Objects.requireNonNull(weigher, "weigher must not be null");
+  }
+
+  public Duration getTimeToLive() {
+    return timeToLive;
+  }
+
+  /**
+   * How long an entry is served after it has been loaded. Applies to entries added afterwards. Default: 5 minutes.
+   */
+  public synchronized void setTimeToLive(Duration timeToLive) {
+    this.timeToLive = Objects.requireNonNull(timeToLive, "timeToLive must not be null");
+  }
+
+}
@@ -0,0 +1,388 @@
+package entropydata.sdk;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs many connectors, i.e., assets synchronizers, event listeners, and other periodic tasks, on one small shared executor,
+ * instead of one blocking thread per connector.
+ * <p>
+ * Between two runs, a connector does not occupy a thread: one scheduler thread submits due runs to a worker pool with a bounded
+ * concurrency (virtual threads on Java 21 and later). A connector never runs concurrently with itself, but independently of
+ * other connectors, even if they have the same connector id. All delays are randomized by the jitter, so that connectors in
+ * many pods that start together do not call the API at the same time.
+ *
+ * <pre>{@code
+ * var runtime = new EntropyDataConnectorRuntime();
+ * runtime.addEventListener(eventListener);
+ * runtime.addAssetsSynchronizer(assetsSynchronizer);
+ * runtime.scheduleCron("costs", "0 2 * * *", ZoneId.of("UTC"), costsConnector::run);
+ * // on shutdown
+ * runtime.close();
+ * }</pre>
+ */
+public class EntropyDataConnectorRuntime implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataConnectorRuntime.class);
+
+  private static final Duration maxCronJitter = Duration.ofMinutes(1);
+
+  private final ScheduledExecutorService scheduler;
+  private final EntropyDataKeyedExecutor workers;
+  private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+  private final AtomicLong registrationIds = new AtomicLong();
+  private volatile boolean closed = false;
+
+  /**
+   * Delays are multiplied by a random factor between 1 - jitter and 1 + jitter.
+   */
+  private volatile double jitter = 0.1;
+
+  public EntropyDataConnectorRuntime() {
+    this(4);
+  }
+
+  /**
+   * @param concurrency the maximum number of connectors that run at the same time
+   */
+  public EntropyDataConnectorRuntime(int concurrency) {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "entropy-data-runtime-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // every registration has at most one run in flight, so submitting never blocks the scheduler thread
+    this.workers = new EntropyDataKeyedExecutor("entropy-data-runtime", concurrency, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Calls {@link EntropyDataEventListener#pollOnce()} repeatedly, with the delay returned by the listener, which is jittered by
+   * the polling policy of the listener. Cancelling the registration stops the listener.
+   */
+  public Registration addEventListener(EntropyDataEventListener eventListener) {
+    Objects.requireNonNull(eventListener, "eventListener must not be null");
+    return register(eventListener.getConnectorId(), eventListener::pollOnce, eventListener::getPollInterval, false, Duration.ZERO,
+        () -> {
+          eventListener.stop();
+          eventListener.closePolling();
+        });
+  }
+
+  /**
+   * Calls {@link EntropyDataAssetsSynchronizer#synchronizeAssets()} with the delay of the synchronizer between two runs.
+   * Cancelling the registration stops the synchronizer.
+   */
+  public Registration addAssetsSynchronizer(EntropyDataAssetsSynchronizer assetsSynchronizer) {
+    Objects.requireNonNull(assetsSynchronizer, "assetsSynchronizer must not be null");
+    return register(assetsSynchronizer.getConnectorId(), () -> {
+      if (assetsSynchronizer.isStopped()) {
+        return null;
+      }
+      assetsSynchronizer.synchronizeAssets();
+      return assetsSynchronizer.getDelay();
+    }, assetsSynchronizer::getDelay, true, Duration.ZERO, assetsSynchronizer::stop);
+  }
+
+  /**
+   * Runs the task now, and then with the delay between the end of a run and the start of the next run.
+   */
+  public Registration scheduleWithFixedDelay(String name, Duration delay, Runnable task) {
+    Objects.requireNonNull(delay, "delay must not be null");
+    Objects.requireNonNull(task, "task must not be null");
+    return register(name, () -> {
+      task.run();
+      return delay;
+    }, () -> delay, true, Duration.ZERO, null);
+  }
+
+  /**
+   * Runs the task at the times of the cron expression, e.g., {@code 0 2 * * *} for every day at 2:00.
+   * The jitter delays each run by up to one minute. A run that is still running at the next time skips that time.
+   *
+   * @param cron a cron expression with the five fields minute, hour, day of month, month, and day of week
+   */
+  public Registration scheduleCron(String name, String cron, ZoneId zone, Runnable task) {
+    Objects.requireNonNull(zone, "zone must not be null");
+    Objects.requireNonNull(task, "task must not be null");
+    var cronExpression = EntropyDataCronExpression.parse(cron);
+    Supplier<Duration> untilNextTime = () -> {
+      var now = ZonedDateTime.now(zone);
+      var untilNext = Duration.between(now, cronExpression.next(now));
+      double cronJitter = Math.min(jitter * untilNext.toMillis(), maxCronJitter.toMillis());
+      return untilNext.plusMillis((long) (ThreadLocalRandom.current().nextDouble() * cronJitter));
+    };
+    return register(name, () -> {
+      task.run();
+      return untilNextTime.get();
+    }, untilNextTime, false, untilNextTime.get(), null);
+  }
+
+  /**
+   * Runs the task now, and then again after the delay that the task returns. The task stops when it returns null.
+   */
+  public Registration scheduleWithReturnedDelay(String name, Callable<Duration> task) {
+    Objects.requireNonNull(task, "task must not be null");
+    return register(name, task, () -> Duration.ofMinutes(1), true, Duration.ZERO, null);
+  }
+
+  /**
+   * @param task returns the delay until the next run, or null to stop
+   * @param delayAfterFailure the delay after a run that has thrown an exception
+   * @param jitterDelays whether the jitter is applied to the delays, false if they are jittered already
+   * @param onCancel called when the registration is cancelled and no run is in flight, e.g., to stop the connector
+   */
+  private Registration register(String name, Callable<Duration> task, Supplier<Duration> delayAfterFailure, boolean jitterDelays,
+      Duration initialDelay, @Nullable Runnable onCancel) {
+    Objects.requireNonNull(name, "name must not be null");
+    if (closed) {
+      throw new IllegalStateException("The runtime has been closed");
+    }
+    Registration registration;
+    synchronized (registrations) {
+      registration = new Registration(uniqueName(name), task, delayAfterFailure, jitterDelays, onCancel);
+      registrations.add(registration);
+    }
+    log.info("{}: Added to the connector runtime", registration.name);
+    scheduleNext(registration, initialDelay, false);
+    return registration;
+  }
+
+  /**
+   * Appends a number to the name, if a registration with that name exists, e.g., for an event listener and an assets synchronizer
+   * with the same connector id.
+   */
+  private String uniqueName(String name) {
+    var uniqueName = name;
+    for (int i = 2; containsName(uniqueName); i++) {
+      uniqueName = name + "-" + i;
+    }
+    return uniqueName;
+  }
+
+  private boolean containsName(String name) {
+    return registrations.stream().anyMatch(registration -> registration.name.equals(name));
+  }
+
+  private void scheduleNext(Registration registration, Duration delay, boolean jitter) {
+    synchronized (registration) {
+      if (registration.cancelled || closed) {
+        return;
+      }
+      long delayMillis = jitter ? jitter(delay.toMillis()) : delay.toMillis();
+      registration.next = scheduler.schedule(() -> submit(registration), delayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private long jitter(long delayMillis) {
+    if (delayMillis <= 0 || jitter <= 0) {
+      return Math.max(0, delayMillis);
+    }
+    return Math.round(delayMillis * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1)));
+  }
+
+  private void submit(Registration registration) {
+    try {
+      // keyed by the registration, as registrations with the same name must not wait for each other
+      workers.submit(registration.key, () -> run(registration));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run(Registration registration) {
+    synchronized (registration) {
+      if (registration.cancelled || closed) {
+        return;
+      }
+      registration.runner = Thread.currentThread();
+    }
+    Duration nextDelay;
+    boolean cancelled;
+    try {
+      nextDelay = registration.task.call();
+    } catch (Exception e) {
+      log.error("{}: Failed", registration.name, e);
+      nextDelay = registration.delayAfterFailure.get();
+    } finally {
+      synchronized (registration) {
+        registration.runner = null;
+        cancelled = registration.cancelled;
+        // a cancel() during the run must not interrupt the next task of this worker thread
+        Thread.interrupted();
+        registration.notifyAll();
+      }
+    }
+    if (cancelled) {
+      // cancel() has left stopping the connector to this thread, so that it does not overlap the run
+      registration.runOnCancel();
+      return;
+    }
+    if (nextDelay == null) {
+      log.info("{}: Stopped, removing it from the connector runtime", registration.name);
+      registrations.remove(registration);
+      return;
+    }
+    scheduleNext(registration, nextDelay, registration.jitterDelays);
+  }
+
+  public double getJitter() {
+    return jitter;
+  }
+
+  public void setJitter(double jitter) {
+    if (jitter < 0 || jitter >= 1) {
+      throw new IllegalArgumentException("jitter must be at least 0 and less than 1");
+    }
+    this.jitter = jitter;
+  }
+
+  public List<Registration> getRegistrations() {
+    return List.copyOf(registrations);
+  }
+
+  /**
+   * Stops scheduling runs, waits up to 30 seconds for the running connectors to finish, and stops all connectors.
+   */
+  @Override
+  public void close() {
+    close(Duration.ofSeconds(30));
+  }
+
+  /**
+   * Stops scheduling runs, waits up to the timeout for the running connectors to finish, interrupts connectors that are
+   * still running, and stops all connectors.
+   */
+  public void close(Duration timeout) {
+    closed = true;
+    for (var registration : registrations) {
+      synchronized (registration) {
+        if (registration.next != null) {
+          registration.next.cancel(false);
+        }
+      }
+    }
+    scheduler.shutdownNow();
+
+    long deadline = System.nanoTime() + timeout.toNanos();
+    for (var registration : registrations) {
+      registration.awaitIdle(deadline);
+    }
+    for (var registration : registrations) {
+      registration.cancel();
+    }
+    workers.close();
+    log.info("Connector runtime closed");
+  }
+
+  /**
+   * A connector or task that is scheduled in the runtime.
+   */
+  public final class Registration {
+
+    private final String name;
+    private final String key = Long.toString(registrationIds.incrementAndGet());
+    private final Callable<Duration> task;
+    private final Supplier<Duration> delayAfterFailure;
+    private final boolean jitterDelays;
+    private final Runnable onCancel;
+
+    // guarded by this
+    private ScheduledFuture<?> next;
+    private Thread runner;
+    private boolean cancelled = false;
+
+    private Registration(String name, Callable<Duration> task, Supplier<Duration> delayAfterFailure, boolean jitterDelays,
+        @Nullable Runnable onCancel) {
+      this.name = name;
+      this.task = task;
+      this.delayAfterFailure = delayAfterFailure;
+      this.jitterDelays = jitterDelays;
+      this.onCancel = onCancel;
+    }
+
+    /**
+     * The name of the registration, which is unique within the runtime, e.g., {@code orders-2} for a second connector
+     * {@code orders}.
+     */
+    public String getName() {
+      return name;
+    }
+
+    public synchronized boolean isRunning() {
+      return runner != null;
+    }
+
+    public synchronized boolean isCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * Cancels all future runs immediately and interrupts a running run. Stops the event listener or assets synchronizer,
+     * after the running run has ended, on the thread of that run, so that the caller does not wait for it.
+     */
+    public void cancel() {
+      boolean running;
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+        if (next != null) {
+          next.cancel(false);
+        }
+        running = runner != null;
+        if (running && runner != Thread.currentThread()) {
+          runner.interrupt();
+        }
+      }
+      registrations.remove(this);
+      if (!running) {
+        runOnCancel();
+      }
+      log.info("{}: Removed from the connector runtime", name);
+    }
+
+    private void runOnCancel() {
+      if (onCancel != null) {
+        try {
+          onCancel.run();
+        } catch (RuntimeException e) {
+          log.error("{}: Failed to stop", name, e);
+        }
+      }
+    }
+
+    private synchronized void awaitIdle(long deadline) {
+      try {
+        long remaining;
+        while (runner != null && (remaining = deadline - System.nanoTime()) > 0) {
+          wait(Math.max(1, remaining / 1_000_000));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Registration[" + name + "]";
+    }
+  }
+
+}
@@ -0,0 +1,341 @@
+package entropydata.sdk;
+
+import entropydata.sdk.client.model.Cost;
+import jakarta.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes costs derived from many small billing records, e.g., per query, as few aggregated costs with {@code POST /api/costs}.
+ * <p>
+ * Records are summed per cost key and month in memory. Every flush interval, the sum since the last flush is published as one Cost
+ * per cost key and month, so that the published costs add up to the recorded amounts. Amounts are summed exactly in millionths
+ * of the currency unit. Costs that cannot be published are added back and published with the next flush.
+ *
+ * <pre>{@code
+ * var publisher = new EntropyDataCostPublisher(client);
+ * var key = publisher.key("orders", "Snowflake queries", "Compute", "USD"); // once per data product
+ * publisher.record(key, YearMonth.from(queryStartTime.atZone(ZoneOffset.UTC)), queryCost); // for every billing record
+ * }</pre>
+ */
+public class EntropyDataCostPublisher implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataCostPublisher.class);
+
+  private static final int scale = 6;
+  private static final int shardBits = 4;
+  private static final int shardCount = 1 << shardBits;
+
+  /**
+   * The dimensions of an aggregated cost. Obtain it once with {@link #key} and reuse it for all records.
+   */
+  public record CostKey(int id, String dataProductId, String name, @Nullable String category, String currency) {
+  }
+
+  private record Dimensions(String dataProductId, String name, @Nullable String category, String currency) {
+  }
+
+  private final EntropyDataClient client;
+  private final EntropyDataKeyedExecutor executor;
+  private final ConcurrentHashMap<Dimensions, CostKey> keysByDimensions = new ConcurrentHashMap<>();
+  private final List<CostKey> keys = new ArrayList<>(); // index: id - 1, guarded by keysByDimensions
+  private final Shard[] shards = new Shard[shardCount];
+  private final ScheduledExecutorService scheduler;
+  private final Thread shutdownHook;
+  private final Object flushLock = new Object(); // flushes run one after another
+  private volatile boolean closed = false;
+
+  private final AtomicLong recordedRecords = new AtomicLong();
+  private final AtomicLong publishedCosts = new AtomicLong();
+  private final AtomicLong failedCosts = new AtomicLong();
+
+  public EntropyDataCostPublisher(EntropyDataClient client) {
+    this(client, Duration.ofMinutes(5), 4);
+  }
+
+  /**
+   * @param flushInterval how often the aggregated costs are published
+   * @param parallelism the maximum number of requests in flight during a flush
+   */
+  public EntropyDataCostPublisher(EntropyDataClient client, Duration flushInterval, int parallelism) {
+    this.client = Objects.requireNonNull(client, "client must not be null");
+    Objects.requireNonNull(flushInterval, "flushInterval must not be null");
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    this.executor = new EntropyDataKeyedExecutor("entropy-data-cost-publisher", parallelism, parallelism * 2);
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] = new Shard();
+    }
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "entropy-data-cost-publisher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    this.shutdownHook = new Thread(this::flushQuietly, "entropy-data-cost-shutdown-flush");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  /**
+   * Returns the key for the dimensions of a cost, the same key for the same dimensions.
+   *
+   * @param name the name of the cost, e.g., the service or the output port it is attributed to
+   */
+  public CostKey key(String dataProductId, String name, @Nullable String category, String currency) {
+    Objects.requireNonNull(dataProductId, "dataProductId must not be null");
+    Objects.requireNonNull(name, "name must not be null");
+    Objects.requireNonNull(currency, "currency must not be null");
+    var dimensions = new Dimensions(dataProductId, name, category, currency);
+    var key = keysByDimensions.get(dimensions);
+    if (key != null) {
+      return key;
+    }
+    synchronized (keysByDimensions) {
+      return keysByDimensions.computeIfAbsent(dimensions, d -> {
+        var newKey = new CostKey(keys.size() + 1, d.dataProductId(), d.name(), d.category(), d.currency());
+        keys.add(newKey);
+        return newKey;
+      });
+    }
+  }
+
+  public void record(CostKey key, YearMonth month, BigDecimal amount) {
+    Objects.requireNonNull(amount, "amount must not be null");
+    record(key, month, amount.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+  }
+
+  /**
+   * Adds an amount to the cost of the key in the month. The amount is rounded to millionths.
+   */
+  public void record(CostKey key, YearMonth month, double amount) {
+    record(key, month, Math.round(amount * 1_000_000d));
+  }
+
+  private void record(CostKey key, YearMonth month, long micros) {
+    Objects.requireNonNull(key, "key must not be null");
+    Objects.requireNonNull(month, "month must not be null");
+    long aggregationKey = ((long) key.id() << 32) | (month.getYear() * 12L + month.getMonthValue() - 1);
+    var shard = shardOf(aggregationKey);
+    synchronized (shard) {
+      shard.amounts.add(aggregationKey, micros);
+    }
+    recordedRecords.incrementAndGet();
+  }
+
+  /**
+   * Publishes the amounts recorded since the last flush and waits until they have been published.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      var costs = new ArrayList<AggregatedCost>();
+      for (var shard : shards) {
+        LongLongMap amounts;
+        synchronized (shard) {
+          amounts = shard.amounts;
+          shard.amounts = new LongLongMap(Math.max(16, amounts.size()));
+        }
+        amounts.forEach((aggregationKey, micros) -> {
+          if (micros != 0) {
+            costs.add(new AggregatedCost(aggregationKey, micros));
+          }
+        });
+      }
+      if (costs.isEmpty()) {
+        return;
+      }
+
+      try {
+        for (var cost : costs) {
+          executor.submit(Long.toString(cost.aggregationKey()), () -> publish(cost));
+        }
+        executor.awaitCompletion();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      log.debug("Published {} costs", costs.size());
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Failed to publish costs", e);
+    }
+  }
+
+  private void publish(AggregatedCost aggregatedCost) {
+    CostKey key;
+    synchronized (keysByDimensions) {
+      key = keys.get((int) (aggregatedCost.aggregationKey() >>> 32) - 1);
+    }
+    int months = (int) aggregatedCost.aggregationKey();
+    var month = YearMonth.of(months / 12, months % 12 + 1);
+    var cost = new Cost()
+        .dataProductId(key.dataProductId())
+        .name(key.name())
+        .category(key.category())
+        .currency(key.currency())
+        .yearMonth(month.toString())
+        .amount(toAmount(aggregatedCost.micros()));
+    try {
+      client.getCostsApi().addCost(cost);
+      publishedCosts.incrementAndGet();
+    } catch (RuntimeException e) {
+      // a POST is only retried by an EntropyDataRetryHandler of the transport, so the amount is kept and published with the next flush
+      failedCosts.incrementAndGet();
+      log.warn("Failed to publish cost {} of data product {} for {}", key.name(), key.dataProductId(), month, e);
+      if (!closed) {
+        var shard = shardOf(aggregatedCost.aggregationKey());
+        synchronized (shard) {
+          shard.amounts.add(aggregatedCost.aggregationKey(), aggregatedCost.micros());
+        }
+      }
+    }
+  }
+
+  /**
+   * Takes the shard from the high bits of the hash, as the LongLongMap of the shard takes the slot from the low bits.
+   * Otherwise, all keys of a shard would share their low bits, and only every 16th slot would be used.
+   */
+  private Shard shardOf(long aggregationKey) {
+    return shards[(int) (mix(aggregationKey) >>> (Long.SIZE - shardBits))];
+  }
+
+  private static BigDecimal toAmount(long micros) {
+    var amount = BigDecimal.valueOf(micros, scale).stripTrailingZeros();
+    return amount.scale() < 0 ? amount.setScale(0) : amount;
+  }
+
+  private static long mix(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return key;
+  }
+
+  /**
+   * The number of recorded billing records.
+   */
+  public long getRecordedRecords() {
+    return recordedRecords.get();
+  }
+
+  /**
+   * The number of costs that have been published.
+   */
+  public long getPublishedCosts() {
+    return publishedCosts.get();
+  }
+
+  /**
+   * The number of costs that could not be published. Their amounts are added to the next flush until the publisher is closed.
+   */
+  public long getFailedCosts() {
+    return failedCosts.get();
+  }
+
+  /**
+   * Stops the scheduled flushes and publishes the amounts recorded since the last flush.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdown();
+    try {
+      scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // JVM is already shutting down, the shutdown hook flushes
+    }
+    closed = true;
+    flush();
+    executor.close();
+  }
+
+  private record AggregatedCost(long aggregationKey, long micros) {
+  }
+
+  private static final class Shard {
+    private LongLongMap amounts = new LongLongMap(16);
+  }
+
+  /**
+   * A map from long to long with open addressing, without boxing. The key 0 is not allowed.
+   */
+  static final class LongLongMap {
+
+    interface Consumer {
+      void accept(long key, long value);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private int size = 0;
+
+    LongLongMap(int expectedSize) {
+      int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 2 - 1)) << 1;
+      keys = new long[capacity];
+      values = new long[capacity];
+    }
+
+    void add(long key, long delta) {
+      int mask = keys.length - 1;
+      int index = (int) mix(key) & mask;
+      while (keys[index] != 0) {
+        if (keys[index] == key) {
+          values[index] += delta;
+          return;
+        }
+        index = (index + 1) & mask;
+      }
+      keys[index] = key;
+      values[index] = delta;
+      if (++size * 2 > keys.length) {
+        resize();
+      }
+    }
+
+    int size() {
+      return size;
+    }
+
+    void forEach(Consumer consumer) {
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] != 0) {
+          consumer.accept(keys[i], values[i]);
+        }
+      }
+    }
+
+    private void resize() {
+      var oldKeys = keys;
+      var oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new long[oldValues.length * 2];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0) {
+          add(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+  }
+
+}
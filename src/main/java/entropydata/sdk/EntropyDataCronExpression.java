@@ -0,0 +1,121 @@
+package entropydata.sdk;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * A cron expression with the five fields minute, hour, day of month, month, and day of week (0 or 7 is Sunday).
+ * Each field is {@code *}, a number, a range {@code a-b}, a range or {@code *} with a step {@code /n}, or a comma-separated list of these.
+ * As in Unix cron, if both day of month and day of week are restricted, a day matches if either field matches.
+ */
+final class EntropyDataCronExpression {
+
+  private final String expression;
+  private final BitSet minutes;
+  private final BitSet hours;
+  private final BitSet daysOfMonth;
+  private final BitSet months;
+  private final BitSet daysOfWeek;
+  private final boolean daysOfMonthRestricted;
+  private final boolean daysOfWeekRestricted;
+
+  private EntropyDataCronExpression(String expression) {
+    this.expression = expression;
+    var fields = expression.trim().split("\\s+");
+    if (fields.length != 5) {
+      throw new IllegalArgumentException("Cron expression must have 5 fields: " + expression);
+    }
+    this.minutes = parseField(fields[0], 0, 59);
+    this.hours = parseField(fields[1], 0, 23);
+    this.daysOfMonth = parseField(fields[2], 1, 31);
+    this.months = parseField(fields[3], 1, 12);
+    this.daysOfWeek = parseField(fields[4], 0, 7);
+    if (daysOfWeek.get(7)) {
+      daysOfWeek.set(0);
+    }
+    this.daysOfMonthRestricted = !fields[2].equals("*");
+    this.daysOfWeekRestricted = !fields[4].equals("*");
+  }
+
+  static EntropyDataCronExpression parse(String expression) {
+    return new EntropyDataCronExpression(expression);
+  }
+
+  /**
+   * The first time after the given time that matches the expression.
+   */
+  ZonedDateTime next(ZonedDateTime after) {
+    var time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    var limit = after.plusYears(5); // e.g., February 30 never matches
+    while (time.isBefore(limit)) {
+      if (!months.get(time.getMonthValue())) {
+        time = time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).plusMonths(1);
+      } else if (!matchesDay(time)) {
+        time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+      } else if (!hours.get(time.getHour())) {
+        time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+      } else if (!minutes.get(time.getMinute())) {
+        time = time.plusMinutes(1);
+      } else {
+        return time;
+      }
+    }
+    throw new IllegalStateException("Cron expression never matches: " + expression);
+  }
+
+  private boolean matchesDay(ZonedDateTime time) {
+    boolean dayOfMonth = daysOfMonth.get(time.getDayOfMonth());
+    boolean dayOfWeek = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+    if (daysOfMonthRestricted && daysOfWeekRestricted) {
+      return dayOfMonth || dayOfWeek;
+    }
+    return dayOfMonth && dayOfWeek;
+  }
+
+  private BitSet parseField(String field, int min, int max) {
+    var values = new BitSet(max + 1);
+    for (var part : field.split(",")) {
+      int step = 1;
+      int slash = part.indexOf('/');
+      if (slash >= 0) {
+        step = parseNumber(part.substring(slash + 1), 1, max);
+        part = part.substring(0, slash);
+      }
+      int from;
+      int to;
+      if (part.equals("*")) {
+        from = min;
+        to = max;
+      } else if (part.indexOf('-') > 0) {
+        from = parseNumber(part.substring(0, part.indexOf('-')), min, max);
+        to = parseNumber(part.substring(part.indexOf('-') + 1), from, max);
+      } else {
+        from = parseNumber(part, min, max);
+        to = slash >= 0 ? max : from;
+      }
+      for (int value = from; value <= to; value += step) {
+        values.set(value);
+      }
+    }
+    return values;
+  }
+
+  private int parseNumber(String value, int min, int max) {
+    try {
+      int number = Integer.parseInt(value);
+      if (number < min || number > max) {
+        throw new IllegalArgumentException("Value " + value + " out of range " + min + "-" + max + " in cron expression: " + expression);
+      }
+      return number;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value " + value + " in cron expression: " + expression, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+}
@@ -0,0 +1,91 @@
+package entropydata.sdk;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the processed events of an EntropyDataEventListener and saves the lastEventId according to an EntropyDataCheckpointPolicy.
+ */
+final class EntropyDataEventCheckpointer {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataEventCheckpointer.class);
+
+  private final Consumer<String> saveLastEventId;
+  private volatile EntropyDataCheckpointPolicy policy;
+
+  private String pendingEventId;
+  private volatile long pendingEvents = 0;
+  private volatile String lastCheckpointEventId;
+  private volatile Instant lastCheckpointTime = Instant.now();
+
+  EntropyDataEventCheckpointer(Consumer<String> saveLastEventId, EntropyDataCheckpointPolicy policy) {
+    this.saveLastEventId = saveLastEventId;
+    this.policy = policy;
+  }
+
+  void setPolicy(EntropyDataCheckpointPolicy policy) {
+    this.policy = policy;
+  }
+
+  /**
+   * Records that the event and all events before have been processed, and saves a checkpoint if the policy requires it.
+   */
+  synchronized void onEventProcessed(String eventId) {
+    pendingEventId = eventId;
+    pendingEvents++;
+    if (policy.getMaxEvents() > 0 && pendingEvents >= policy.getMaxEvents()) {
+      flush();
+    } else {
+      flushIfIntervalElapsed();
+    }
+  }
+
+  synchronized void onEndOfBatch() {
+    if (policy.isEndOfBatch()) {
+      flush();
+    } else {
+      flushIfIntervalElapsed();
+    }
+  }
+
+  synchronized void flushIfIntervalElapsed() {
+    var maxInterval = policy.getMaxInterval();
+    if (maxInterval != null && Duration.between(lastCheckpointTime, Instant.now()).compareTo(maxInterval) >= 0) {
+      flush();
+    }
+  }
+
+  /**
+   * Saves the id of the last processed event, if it has not been saved yet.
+   */
+  synchronized void flush() {
+    if (pendingEventId == null) {
+      return;
+    }
+    saveLastEventId.accept(pendingEventId);
+    log.debug("Saved checkpoint {} after {} events", pendingEventId, pendingEvents);
+    lastCheckpointEventId = pendingEventId;
+    lastCheckpointTime = Instant.now();
+    pendingEventId = null;
+    pendingEvents = 0;
+  }
+
+  /**
+   * The number of processed events that have not been saved yet. These events would be processed again after a restart.
+   */
+  long getCheckpointLag() {
+    return pendingEvents;
+  }
+
+  String getLastCheckpointEventId() {
+    return lastCheckpointEventId;
+  }
+
+  Instant getLastCheckpointTime() {
+    return lastCheckpointTime;
+  }
+
+}
@@ -0,0 +1,310 @@
+package entropydata.sdk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.TokenBufferDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import entropydata.sdk.client.model.AccessActivatedEvent;
+import entropydata.sdk.client.model.AccessApprovedEvent;
+import entropydata.sdk.client.model.AccessCreatedEvent;
+import entropydata.sdk.client.model.AccessDeactivatedEvent;
+import entropydata.sdk.client.model.AccessDeletedEvent;
+import entropydata.sdk.client.model.AccessRejectedEvent;
+import entropydata.sdk.client.model.AccessRequestedEvent;
+import entropydata.sdk.client.model.AccessUpdatedEvent;
+import entropydata.sdk.client.model.AssetCreatedEvent;
+import entropydata.sdk.client.model.AssetDeletedEvent;
+import entropydata.sdk.client.model.AssetUpdatedEvent;
+import entropydata.sdk.client.model.CloudEvent;
+import entropydata.sdk.client.model.DataContractCreatedEvent;
+import entropydata.sdk.client.model.DataContractDeletedEvent;
+import entropydata.sdk.client.model.DataContractUpdatedEvent;
+import entropydata.sdk.client.model.DataProductCreatedEvent;
+import entropydata.sdk.client.model.DataProductDeletedEvent;
+import entropydata.sdk.client.model.DataProductUpdatedEvent;
+import entropydata.sdk.client.model.DefinitionCreatedEvent;
+import entropydata.sdk.client.model.DefinitionDeletedEvent;
+import entropydata.sdk.client.model.DefinitionUpdatedEvent;
+import entropydata.sdk.client.model.OutputPortCreatedEvent;
+import entropydata.sdk.client.model.OutputPortDeletedEvent;
+import entropydata.sdk.client.model.OutputPortUpdatedEvent;
+import entropydata.sdk.client.model.SourceSystemCreatedEvent;
+import entropydata.sdk.client.model.SourceSystemDeletedEvent;
+import entropydata.sdk.client.model.SourceSystemUpdatedEvent;
+import entropydata.sdk.client.model.TagCreatedEvent;
+import entropydata.sdk.client.model.TagDeletedEvent;
+import entropydata.sdk.client.model.TagUpdatedEvent;
+import entropydata.sdk.client.model.TeamCreatedEvent;
+import entropydata.sdk.client.model.TeamDeletedEvent;
+import entropydata.sdk.client.model.TeamUpdatedEvent;
+import entropydata.sdk.client.model.TestResultsCreatedEvent;
+import entropydata.sdk.client.model.TestResultsDeletedEvent;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes the events feed and dispatches the events to the callbacks of the EntropyDataEventHandlers.
+ * <p>
+ * The response is parsed in a single streaming pass. The payload of each event is buffered as tokens and read directly
+ * into the typed event class with a pre-resolved reader, once for all handlers, and only if a handler overrides the callback.
+ * The generic {@link EntropyDataEventHandler#onEvent(CloudEvent)} payload is only materialized if a handler overrides that callback.
+ */
+final class EntropyDataEventDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataEventDispatcher.class);
+
+  private static final Map<String, EventType<?>> eventTypes = new HashMap<>(); // key: event name, e.g., DataProductCreatedEvent
+
+  static {
+    register(DataProductCreatedEvent.class, "onDataProductCreatedEvent", EntropyDataEventHandler::onDataProductCreatedEvent, DataProductCreatedEvent::getId);
+    register(DataProductUpdatedEvent.class, "onDataProductUpdatedEvent", EntropyDataEventHandler::onDataProductUpdatedEvent, DataProductUpdatedEvent::getId);
+    register(DataProductDeletedEvent.class, "onDataProductDeletedEvent", EntropyDataEventHandler::onDataProductDeletedEvent, DataProductDeletedEvent::getId);
+    register(OutputPortCreatedEvent.class, "onOutputPortCreatedEvent", EntropyDataEventHandler::onOutputPortCreatedEvent, OutputPortCreatedEvent::getId);
+    register(OutputPortUpdatedEvent.class, "onOutputPortUpdatedEvent", EntropyDataEventHandler::onOutputPortUpdatedEvent, OutputPortUpdatedEvent::getId);
+    register(OutputPortDeletedEvent.class, "onOutputPortDeletedEvent", EntropyDataEventHandler::onOutputPortDeletedEvent, OutputPortDeletedEvent::getId);
+    register(DataContractCreatedEvent.class, "onDataContractCreatedEvent", EntropyDataEventHandler::onDataContractCreatedEvent, DataContractCreatedEvent::getId);
+    register(DataContractUpdatedEvent.class, "onDataContractUpdatedEvent", EntropyDataEventHandler::onDataContractUpdatedEvent, DataContractUpdatedEvent::getId);
+    register(DataContractDeletedEvent.class, "onDataContractDeletedEvent", EntropyDataEventHandler::onDataContractDeletedEvent, DataContractDeletedEvent::getId);
+    register(AccessCreatedEvent.class, "onAccessCreatedEvent", EntropyDataEventHandler::onAccessCreatedEvent, AccessCreatedEvent::getId);
+    register(AccessUpdatedEvent.class, "onAccessUpdatedEvent", EntropyDataEventHandler::onAccessUpdatedEvent, AccessUpdatedEvent::getId);
+    register(AccessDeletedEvent.class, "onAccessDeletedEvent", EntropyDataEventHandler::onAccessDeletedEvent, AccessDeletedEvent::getId);
+    register(AccessRequestedEvent.class, "onAccessRequestedEvent", EntropyDataEventHandler::onAccessRequestedEvent, AccessRequestedEvent::getId);
+    register(AccessApprovedEvent.class, "onAccessApprovedEvent", EntropyDataEventHandler::onAccessApprovedEvent, AccessApprovedEvent::getId);
+    register(AccessRejectedEvent.class, "onAccessRejectedEvent", EntropyDataEventHandler::onAccessRejectedEvent, AccessRejectedEvent::getId);
+    register(AccessActivatedEvent.class, "onAccessActivatedEvent", EntropyDataEventHandler::onAccessActivatedEvent, AccessActivatedEvent::getId);
+    register(AccessDeactivatedEvent.class, "onAccessDeactivatedEvent", EntropyDataEventHandler::onAccessDeactivatedEvent, AccessDeactivatedEvent::getId);
+    register(SourceSystemCreatedEvent.class, "onSourceSystemCreatedEvent", EntropyDataEventHandler::onSourceSystemCreatedEvent, SourceSystemCreatedEvent::getId);
+    register(SourceSystemUpdatedEvent.class, "onSourceSystemUpdatedEvent", EntropyDataEventHandler::onSourceSystemUpdatedEvent, SourceSystemUpdatedEvent::getId);
+    register(SourceSystemDeletedEvent.class, "onSourceSystemDeletedEvent", EntropyDataEventHandler::onSourceSystemDeletedEvent, SourceSystemDeletedEvent::getId);
+    register(TeamCreatedEvent.class, "onTeamCreatedEvent", EntropyDataEventHandler::onTeamCreatedEvent, TeamCreatedEvent::getId);
+    register(TeamUpdatedEvent.class, "onTeamUpdatedEvent", EntropyDataEventHandler::onTeamUpdatedEvent, TeamUpdatedEvent::getId);
+    register(TeamDeletedEvent.class, "onTeamDeletedEvent", EntropyDataEventHandler::onTeamDeletedEvent, TeamDeletedEvent::getId);
+    register(DefinitionCreatedEvent.class, "onDefinitionCreatedEvent", EntropyDataEventHandler::onDefinitionCreatedEvent, DefinitionCreatedEvent::getId);
+    register(DefinitionUpdatedEvent.class, "onDefinitionUpdatedEvent", EntropyDataEventHandler::onDefinitionUpdatedEvent, DefinitionUpdatedEvent::getId);
+    register(DefinitionDeletedEvent.class, "onDefinitionDeletedEvent", EntropyDataEventHandler::onDefinitionDeletedEvent, DefinitionDeletedEvent::getId);
+    register(TagCreatedEvent.class, "onTagCreatedEvent", EntropyDataEventHandler::onTagCreatedEvent, TagCreatedEvent::getId);
+    register(TagUpdatedEvent.class, "onTagUpdatedEvent", EntropyDataEventHandler::onTagUpdatedEvent, TagUpdatedEvent::getId);
+    register(TagDeletedEvent.class, "onTagDeletedEvent", EntropyDataEventHandler::onTagDeletedEvent, TagDeletedEvent::getId);
+    register(AssetCreatedEvent.class, "onAssetCreatedEvent", EntropyDataEventHandler::onAssetCreatedEvent, AssetCreatedEvent::getId);
+    register(AssetUpdatedEvent.class, "onAssetUpdatedEvent", EntropyDataEventHandler::onAssetUpdatedEvent, AssetUpdatedEvent::getId);
+    register(AssetDeletedEvent.class, "onAssetDeletedEvent", EntropyDataEventHandler::onAssetDeletedEvent, AssetDeletedEvent::getId);
+    register(TestResultsCreatedEvent.class, "onTestResultsCreatedEvent", EntropyDataEventHandler::onTestResultsCreatedEvent, TestResultsCreatedEvent::getId);
+    register(TestResultsDeletedEvent.class, "onTestResultsDeletedEvent", EntropyDataEventHandler::onTestResultsDeletedEvent, TestResultsDeletedEvent::getId);
+    for (var deprecated : List.of("DataUsageAgreementCreatedEvent", "DataUsageAgreementUpdatedEvent",
+        "DataUsageAgreementDeletedEvent", "DataUsageAgreementRequestedEvent",
+        "DataUsageAgreementApprovedEvent", "DataUsageAgreementRejectedEvent",
+        "DataUsageAgreementActivatedEvent", "DataUsageAgreementDeactivatedEvent")) {
+      eventTypes.put(deprecated, EventType.DEPRECATED);
+    }
+  }
+
+  private final List<EntropyDataEventHandler> eventHandlers = new ArrayList<>(); // guarded by this
+  private volatile List<EntropyDataEventHandler> genericHandlers = List.of();
+  private volatile Map<String, Route> routesByName = Map.of();
+  private final ConcurrentHashMap<String, Route> routesByType = new ConcurrentHashMap<>(); // key: full CloudEvent type
+  private final ObjectMapper objectMapper;
+  private final ObjectReader eventReader;
+  private final ObjectReader dataReader;
+
+  EntropyDataEventDispatcher(EntropyDataEventHandler eventHandler) {
+    this.objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .addMixIn(CloudEvent.class, BufferedData.class);
+    this.eventReader = objectMapper.readerFor(CloudEvent.class);
+    this.dataReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+    addEventHandler(eventHandler);
+  }
+
+  /**
+   * Adds an event handler. Handlers are called in the order in which they have been added.
+   */
+  synchronized void addEventHandler(EntropyDataEventHandler eventHandler) {
+    eventHandlers.add(Objects.requireNonNull(eventHandler, "eventHandler must not be null"));
+
+    var generic = new ArrayList<EntropyDataEventHandler>();
+    for (var handler : eventHandlers) {
+      if (overrides(handler, "onEvent", CloudEvent.class)) {
+        generic.add(handler);
+      }
+    }
+    var routes = new HashMap<String, Route>();
+    for (var eventType : eventTypes.entrySet()) {
+      var type = eventType.getValue();
+      var handlers = new ArrayList<EntropyDataEventHandler>();
+      for (var handler : eventHandlers) {
+        if (type.payloadType != null && overrides(handler, type.callbackName, type.payloadType)) {
+          handlers.add(handler);
+        }
+      }
+      var reader = handlers.isEmpty() ? null : objectMapper.readerFor(type.payloadType);
+      routes.put(eventType.getKey(), new Route(type, reader, List.copyOf(handlers)));
+    }
+    this.genericHandlers = List.copyOf(generic);
+    this.routesByName = routes;
+    this.routesByType.clear();
+  }
+
+  /**
+   * Decodes a response of the events feed.
+   */
+  List<Event> decode(byte[] response) throws IOException {
+    var events = new ArrayList<Event>();
+    try (JsonParser parser = eventReader.createParser(response)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("Expected an array of events, but got " + parser.currentToken());
+      }
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        CloudEvent cloudEvent = eventReader.readValue(parser);
+        events.add(decode(cloudEvent));
+      }
+    }
+    return events;
+  }
+
+  private Event decode(CloudEvent cloudEvent) throws IOException {
+    var eventId = Objects.requireNonNull(cloudEvent.getId(), "event id must not be null").toString();
+    var route = route(Objects.requireNonNull(cloudEvent.getType(), "event type must not be null"));
+    var data = (TokenBuffer) cloudEvent.getData();
+    cloudEvent.setData(null);
+
+    Object payload = null;
+    String partitionKey = null;
+    if (data != null) {
+      if (route != null && route.reader != null) {
+        payload = route.reader.readValue(data.asParser());
+        partitionKey = route.type.id(payload);
+      } else {
+        partitionKey = readId(data);
+      }
+      if (!genericHandlers.isEmpty()) {
+        cloudEvent.setData(dataReader.readValue(data.asParser()));
+      }
+    }
+    return new Event(eventId, cloudEvent, route, payload, partitionKey != null ? partitionKey : eventId);
+  }
+
+  /**
+   * Calls the callbacks of the event handlers for the event.
+   */
+  void dispatch(Event event) {
+    log.debug("Processing event {} of type {}", event.id, event.cloudEvent.getType());
+    for (var handler : genericHandlers) {
+      handler.onEvent(event.cloudEvent);
+    }
+    var route = event.route;
+    if (route == null) {
+      log.warn("Unknown event type: {}", event.cloudEvent.getType());
+    } else if (route.type == EventType.DEPRECATED) {
+      log.debug("Ignore deprecated event");
+    } else {
+      // an event without data is dispatched with a null payload
+      for (var handler : route.handlers) {
+        route.type.dispatch(handler, event.payload);
+      }
+    }
+  }
+
+  @Nullable
+  private Route route(String cloudEventType) {
+    var route = routesByType.get(cloudEventType);
+    if (route == null) {
+      int lastDot = cloudEventType.lastIndexOf('.');
+      route = routesByName.get(lastDot >= 0 ? cloudEventType.substring(lastDot + 1) : cloudEventType);
+      if (route != null) {
+        routesByType.putIfAbsent(cloudEventType, route);
+      }
+    }
+    return route;
+  }
+
+  /**
+   * Reads the top-level id field of a buffered payload without materializing it.
+   */
+  @Nullable
+  private static String readId(TokenBuffer data) throws IOException {
+    try (JsonParser parser = data.asParser()) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        var fieldName = parser.currentName();
+        var token = parser.nextToken();
+        if ("id".equals(fieldName) && token.isScalarValue()) {
+          return parser.getText();
+        }
+        parser.skipChildren();
+      }
+    }
+    return null;
+  }
+
+  private static boolean overrides(EntropyDataEventHandler eventHandler, String methodName, Class<?> parameterType) {
+    try {
+      return eventHandler.getClass().getMethod(methodName, parameterType).getDeclaringClass() != EntropyDataEventHandler.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static <T> void register(Class<T> payloadType, String callbackName,
+      BiConsumer<EntropyDataEventHandler, T> callback, Function<T, String> idGetter) {
+    eventTypes.put(payloadType.getSimpleName(), new EventType<>(payloadType, callbackName, callback, idGetter));
+  }
+
+  private record EventType<T>(Class<T> payloadType, String callbackName,
+                              BiConsumer<EntropyDataEventHandler, T> callback, Function<T, String> idGetter) {
+
+    static final EventType<Object> DEPRECATED = new EventType<>(null, null, null, null);
+
+    @SuppressWarnings("unchecked")
+    void dispatch(EntropyDataEventHandler eventHandler, Object payload) {
+      callback.accept(eventHandler, (T) payload);
+    }
+
+    @SuppressWarnings("unchecked")
+    String id(Object payload) {
+      return idGetter.apply((T) payload);
+    }
+  }
+
+  /**
+   * The resolved event type of an event name, with the handlers that override the callback, and the reader for the payload
+   * if there is any such handler.
+   */
+  private record Route(EventType<?> type, @Nullable ObjectReader reader, List<EntropyDataEventHandler> handlers) {
+  }
+
+  /**
+   * A decoded event.
+   *
+   * @param partitionKey the id of the entity in the payload, or the event id if the payload has no id
+   */
+  record Event(String id, CloudEvent cloudEvent, @Nullable Route route, @Nullable Object payload, String partitionKey) {
+  }
+
+  /**
+   * Buffers the data of a CloudEvent as tokens, instead of materializing it as maps.
+   */
+  private abstract static class BufferedData {
+
+    @JsonDeserialize(using = TokenBufferDeserializer.class)
+    abstract void setData(Object data);
+  }
+
+}
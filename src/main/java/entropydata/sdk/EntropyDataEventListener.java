@@ -1,51 +1,30 @@
 package entropydata.sdk;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import entropydata.sdk.client.ApiException;
-import entropydata.sdk.client.model.AccessActivatedEvent;
-import entropydata.sdk.client.model.AccessApprovedEvent;
-import entropydata.sdk.client.model.AccessCreatedEvent;
-import entropydata.sdk.client.model.AccessDeactivatedEvent;
-import entropydata.sdk.client.model.AccessDeletedEvent;
-import entropydata.sdk.client.model.AccessRejectedEvent;
-import entropydata.sdk.client.model.AccessRequestedEvent;
-import entropydata.sdk.client.model.AccessUpdatedEvent;
-import entropydata.sdk.client.model.AssetCreatedEvent;
-import entropydata.sdk.client.model.AssetDeletedEvent;
-import entropydata.sdk.client.model.AssetUpdatedEvent;
 import entropydata.sdk.client.model.CloudEvent;
-import entropydata.sdk.client.model.DataContractCreatedEvent;
-import entropydata.sdk.client.model.DataContractDeletedEvent;
-import entropydata.sdk.client.model.DataContractUpdatedEvent;
-import entropydata.sdk.client.model.DataProductCreatedEvent;
-import entropydata.sdk.client.model.DataProductDeletedEvent;
-import entropydata.sdk.client.model.DataProductUpdatedEvent;
-import entropydata.sdk.client.model.DefinitionCreatedEvent;
-import entropydata.sdk.client.model.DefinitionDeletedEvent;
-import entropydata.sdk.client.model.DefinitionUpdatedEvent;
-import entropydata.sdk.client.model.OutputPortCreatedEvent;
-import entropydata.sdk.client.model.OutputPortDeletedEvent;
-import entropydata.sdk.client.model.OutputPortUpdatedEvent;
-import entropydata.sdk.client.model.SourceSystemCreatedEvent;
-import entropydata.sdk.client.model.SourceSystemDeletedEvent;
-import entropydata.sdk.client.model.SourceSystemUpdatedEvent;
-import entropydata.sdk.client.model.TagCreatedEvent;
-import entropydata.sdk.client.model.TagDeletedEvent;
-import entropydata.sdk.client.model.TagUpdatedEvent;
-import entropydata.sdk.client.model.TeamCreatedEvent;
-import entropydata.sdk.client.model.TeamDeletedEvent;
-import entropydata.sdk.client.model.TeamUpdatedEvent;
 import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This EventListener subscribes to the events feeds in an infinite loop and processes the events.
+ * <p>
+ * Use {@link #start()} to poll on the current thread, or add the listener to an EntropyDataConnectorRuntime, which calls
+ * {@link #pollOnce()} on a shared executor.
  */
 public class EntropyDataEventListener {
 
@@ -56,11 +35,39 @@ public class EntropyDataEventListener {
   private final EntropyDataClient client;
   private final EntropyDataStateRepository stateRepository;
 
-  private final ObjectMapper objectMapper;
+  private final EntropyDataEventDispatcher dispatcher;
+  private final EntropyDataMetrics metrics;
   private final EntropyDataConnectorRegistration connectorRegistration;
 
-  private boolean stopped = false;
-  private Duration pollInterval = Duration.ofSeconds(5);
+  private volatile boolean stopped = false;
+  private final CountDownLatch stopSignal = new CountDownLatch(1); // wakes up the waiting poll loop on stop()
+  private volatile EntropyDataPollingPolicy pollingPolicy = EntropyDataPollingPolicy.defaultPolicy();
+
+  // the number of empty and failed polls in a row, for the backoff of the polling policy
+  private int emptyPolls = 0;
+  private int failedPolls = 0;
+
+  /**
+   * The number of events that are processed in parallel. With 1, events are processed one after another.
+   */
+  private int concurrency = 1;
+
+  /**
+   * The maximum number of events that are dispatched but not yet processed.
+   */
+  private int maxPendingEvents = 1000;
+
+  /**
+   * The id of the last event that has been processed, together with all events before.
+   */
+  private volatile String lastEventId;
+
+  private EntropyDataCheckpointPolicy checkpointPolicy = EntropyDataCheckpointPolicy.defaultPolicy();
+  private final EntropyDataEventCheckpointer checkpointer;
+
+  // state of pollOnce(), start() uses local state
+  private boolean lastEventIdLoaded = false;
+  private EntropyDataKeyedExecutor pollEventsExecutor;
 
   public EntropyDataEventListener(String connectorId, String type, EntropyDataClient client, EntropyDataEventHandler eventHandler,
       EntropyDataStateRepository stateRepository) {
@@ -69,68 +76,260 @@ public class EntropyDataEventListener {
     this.client = Objects.requireNonNull(client, "client must not be null");
     this.stateRepository = Objects.requireNonNull(stateRepository, "stateRepository must not be null");
     this.connectorRegistration = new EntropyDataConnectorRegistration(client, connectorId, type);
-
-    this.objectMapper = new ObjectMapper()
-        .findAndRegisterModules()
-        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.checkpointer = new EntropyDataEventCheckpointer(this::saveLastEventId, checkpointPolicy);
+    this.dispatcher = new EntropyDataEventDispatcher(eventHandler);
+    this.metrics = client.getMetrics();
+    this.metrics.registerCheckpointLag(connectorId, checkpointer::getCheckpointLag);
 
     this.connectorRegistration.register();
   }
 
   /**
    * Starts the event listener to poll for events from the DataMeshManager in an infinite loop.
+   * After a full page, the next page of events is fetched while the current page is processed.
    */
   public void start() {
     log.info("{}: Start polling for events", connectorId);
 
     // TODO error handling for connectorRegistration
 
-    var lastEventId = getLastEventId();
-    while (!this.stopped) {
-      try {
+    var prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      var thread = new Thread(runnable, connectorId + "-events-prefetch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var eventsExecutor = concurrency > 1
+        ? new EntropyDataKeyedExecutor(connectorId + "-events", concurrency, Math.max(concurrency, maxPendingEvents))
+        : null;
+
+    this.lastEventId = loadLastEventId();
+    CompletableFuture<List<EntropyDataEventDispatcher.Event>> nextEvents = null;
+    try {
+      while (!this.stopped) {
+        try {
 
-        List<entropydata.sdk.client.model.CloudEvent> events = fetchEvents(lastEventId);
+          List<EntropyDataEventDispatcher.Event> events = nextEvents != null ? awaitEvents(nextEvents) : fetchAndDecodeEvents(lastEventId);
+          nextEvents = null;
+          var delay = delayAfterPage(events.size());
 
-        for (var event : events) {
-          processEvent(event);
-          lastEventId = Objects.requireNonNull(event.getId()).toString();
-          saveLastEventId(lastEventId);
+          if (events.isEmpty()) {
+            checkpointer.flushIfIntervalElapsed();
+            log.debug("Got empty response, now wait for {} to make the next call", delay);
+            awaitStop(delay);
+            continue;
+          }
+
+          if (delay.isZero()) {
+            var lastFetchedEventId = events.get(events.size() - 1).id();
+            nextEvents = prefetchEvents(lastFetchedEventId, prefetchExecutor);
+          }
+
+          if (eventsExecutor != null) {
+            processEventsInParallel(events, eventsExecutor);
+          } else {
+            processEvents(events);
+          }
+          checkpointer.onEndOfBatch();
+
+          if (nextEvents == null) {
+            awaitStop(delay);
+          }
+
+        } catch (InterruptedException e) {
+          break;
+        } catch (Exception e) {
+          if (nextEvents != null) {
+            nextEvents.cancel(true);
+            nextEvents = null;
+          }
+          flushCheckpoint();
+          var delay = delayAfterError();
+          log.error("Failed to fetch events, now wait for {} to make the next call", delay, e);
+          try {
+            awaitStop(delay);
+          } catch (InterruptedException ex) {
+            break;
+          }
         }
+      }
+    } finally {
+      prefetchExecutor.shutdownNow();
+      if (eventsExecutor != null) {
+        eventsExecutor.close();
+      }
+      flushCheckpoint();
+    }
 
-        if (events.isEmpty()) {
-          log.info("Got empty response, now wait for {} to make the next call", pollInterval);
-          Thread.sleep(pollInterval.toMillis());
-          continue;
+    log.info("Stopped polling for events");
+  }
+
+  /**
+   * Fetches and processes one page of events, without waiting. This is an alternative to {@link #start()} for a scheduler, such as
+   * the EntropyDataConnectorRuntime, that calls this method repeatedly.
+   *
+   * @return the delay until this method should be called again, or null if the listener has been stopped
+   */
+  @Nullable
+  public Duration pollOnce() {
+    if (stopped) {
+      closePolling();
+      return null;
+    }
+    if (!lastEventIdLoaded) {
+      this.lastEventId = loadLastEventId();
+      lastEventIdLoaded = true;
+    }
+    try {
+      var events = fetchAndDecodeEvents(lastEventId);
+      var delay = delayAfterPage(events.size());
+      if (events.isEmpty()) {
+        checkpointer.flushIfIntervalElapsed();
+        log.debug("Got empty response, next call in {}", delay);
+        return delay;
+      }
+      if (concurrency > 1) {
+        if (pollEventsExecutor == null) {
+          pollEventsExecutor = new EntropyDataKeyedExecutor(connectorId + "-events", concurrency, Math.max(concurrency, maxPendingEvents));
         }
+        processEventsInParallel(events, pollEventsExecutor);
+      } else {
+        processEvents(events);
+      }
+      checkpointer.onEndOfBatch();
+      return delay;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closePolling();
+      return null;
+    } catch (Exception e) {
+      flushCheckpoint();
+      var delay = delayAfterError();
+      log.error("Failed to fetch events, next call in {}", delay, e);
+      return delay;
+    }
+  }
 
-      } catch (InterruptedException e) {
-        break;
-      } catch (Exception e) {
-        log.error("Failed to fetch events, now wait for 30 seconds to make the next call", e);
-        try {
-          Thread.sleep(Duration.ofSeconds(30).toMillis());
-        } catch (InterruptedException ex) {
+  /**
+   * Releases the executor of {@link #pollOnce()} and saves the checkpoint. Must not run concurrently with pollOnce(), so it is
+   * called on the polling thread, or by the EntropyDataConnectorRuntime when no poll is running.
+   */
+  void closePolling() {
+    if (pollEventsExecutor != null) {
+      pollEventsExecutor.close();
+      pollEventsExecutor = null;
+    }
+    flushCheckpoint();
+  }
+
+  private Duration delayAfterPage(int events) {
+    failedPolls = 0;
+    emptyPolls = events == 0 ? emptyPolls + 1 : 0;
+    return pollingPolicy.delayAfterPage(events, emptyPolls);
+  }
+
+  private Duration delayAfterError() {
+    return pollingPolicy.delayAfterError(++failedPolls);
+  }
+
+  /**
+   * Waits for the duration, or until the listener is stopped.
+   */
+  private void awaitStop(Duration duration) throws InterruptedException {
+    stopSignal.await(duration.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private CompletableFuture<List<EntropyDataEventDispatcher.Event>> prefetchEvents(String lastEventId,
+      ExecutorService prefetchExecutor) {
+    return CompletableFuture.supplyAsync(() -> {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new CancellationException("Interrupted while fetching events");
+      }
+      return fetchAndDecodeEvents(lastEventId);
+    }, prefetchExecutor);
+  }
+
+  private List<EntropyDataEventDispatcher.Event> awaitEvents(CompletableFuture<List<EntropyDataEventDispatcher.Event>> events) throws InterruptedException {
+    try {
+      return events.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Processes the events one after another and saves the id of every processed event.
+   */
+  private void processEvents(List<EntropyDataEventDispatcher.Event> events) {
+    for (var event : events) {
+      processEvent(event);
+      commit(event);
+    }
+  }
+
+  /**
+   * Processes the events in parallel, partitioned by the id of the entity in the event payload.
+   * Events with the same entity id are processed in order. The lastEventId only advances to the last event
+   * for which all previous events have been processed (low watermark), so no event is skipped after a failure.
+   */
+  private void processEventsInParallel(List<EntropyDataEventDispatcher.Event> events, EntropyDataKeyedExecutor eventsExecutor)
+      throws InterruptedException {
+    var futures = new ArrayList<CompletableFuture<Void>>(events.size());
+    int committed = 0;
+    for (var event : events) {
+      futures.add(eventsExecutor.submit(event.partitionKey(), () -> processEvent(event)));
+      while (committed < futures.size() && futures.get(committed).isDone()) {
+        if (futures.get(committed).isCompletedExceptionally()) {
           break;
         }
+        commit(events.get(committed));
+        committed++;
+      }
+      if (committed < futures.size() && futures.get(committed).isCompletedExceptionally()) {
+        break;
       }
     }
 
-    log.info("Stopped polling for events");
+    for (; committed < futures.size(); committed++) {
+      try {
+        futures.get(committed).get();
+      } catch (ExecutionException e) {
+        // let the in-flight events complete, and restart from the last committed event
+        eventsExecutor.awaitCompletion();
+        throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(e.getCause());
+      }
+      commit(events.get(committed));
+    }
+  }
+
+  private void commit(EntropyDataEventDispatcher.Event event) {
+    this.lastEventId = event.id();
+    checkpointer.onEventProcessed(this.lastEventId);
+    var time = event.cloudEvent().getTime();
+    if (time != null && metrics != EntropyDataMetrics.NOOP) {
+      metrics.recordEventLag(connectorId, System.currentTimeMillis() - time.toInstant().toEpochMilli());
+    }
+  }
+
+  private void flushCheckpoint() {
+    try {
+      checkpointer.flush();
+    } catch (Exception e) {
+      log.error("Failed to save lastEventId", e);
+    }
   }
 
   @Nullable
-  private String getLastEventId() {
+  private String loadLastEventId() {
     return (String) stateRepository.getState().get("lastEventId");
   }
 
   private void saveLastEventId(String lastEventId) {
-    stateRepository.saveState(Map.of("lastEventId", lastEventId));
+    stateRepository.putState("lastEventId", lastEventId);
   }
 
 
-  public List<entropydata.sdk.client.model.CloudEvent> fetchEvents(String lastEventId) throws InterruptedException {
+  public List<CloudEvent> fetchEvents(String lastEventId) throws InterruptedException {
     log.info("Fetching events with lastEventId={}", lastEventId);
-    List<CloudEvent> response = null;
     try {
       var events = client.getEventsApi().pollEvents(lastEventId, false);
       log.debug("Fetched {} events", events.size());
@@ -141,116 +340,136 @@ public class EntropyDataEventListener {
     }
   }
 
+  /**
+   * Fetches the events after the lastEventId and decodes them in a single pass for the event handler.
+   */
+  private List<EntropyDataEventDispatcher.Event> fetchAndDecodeEvents(String lastEventId) {
+    log.debug("Fetching events with lastEventId={}", lastEventId);
+    try {
+      var events = dispatcher.decode(client.pollEventsAsBytes(lastEventId, pollingPolicy.isLongPolling()));
+      log.debug("Fetched {} events", events.size());
+      return events;
+    } catch (ApiException e) {
+      log.error("Failed to fetch events", e);
+      throw new RuntimeException(e);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to decode events", e);
+    }
+  }
+
   public void stop() {
     if (this.stopped) {
       log.info("Polling for events already stopped");
       return;
     }
     this.stopped = true;
+    // the polling thread closes the executor and saves the checkpoint, as it may still be processing events
+    stopSignal.countDown();
     log.info("Stopping polling for events");
   }
 
+  boolean isStopped() {
+    return stopped;
+  }
+
+  public String getConnectorId() {
+    return connectorId;
+  }
+
+  /**
+   * Adds another event handler, e.g., an EntropyDataReplica. Must be called before the listener is started.
+   * Handlers are called in the order in which they have been added, starting with the handler passed to the constructor.
+   */
+  public void addEventHandler(EntropyDataEventHandler eventHandler) {
+    dispatcher.addEventHandler(eventHandler);
+  }
+
+  /**
+   * The id of the last event that has been processed by all event handlers, together with all events before.
+   */
+  @Nullable
+  public String getLastEventId() {
+    return lastEventId;
+  }
+
+  /**
+   * The maximum interval between two polls while the events feed is empty.
+   */
   public Duration getPollInterval() {
-    return pollInterval;
+    return pollingPolicy.getMaxInterval();
   }
 
+  /**
+   * Sets the maximum interval between two polls while the events feed is empty. Must be positive.
+   *
+   * @see #setPollingPolicy(EntropyDataPollingPolicy)
+   */
   public void setPollInterval(Duration pollInterval) {
-    this.pollInterval = pollInterval;
-  }
-
-  private String extractEventName(String eventType) {
-    int lastDot = eventType.lastIndexOf('.');
-    return lastDot >= 0 ? eventType.substring(lastDot + 1) : eventType;
-  }
-
-  private void processEvent(entropydata.sdk.client.model.CloudEvent event) {
-    log.info("Processing event {} of type {}", event.getId(), event.getType());
-    this.eventHandler.onEvent(event);
-    var eventName = extractEventName(Objects.requireNonNull(event.getType()));
-    switch (eventName) {
-      case "DataProductCreatedEvent" ->
-          this.eventHandler.onDataProductCreatedEvent(convertPayload(event, DataProductCreatedEvent.class));
-      case "DataProductUpdatedEvent" ->
-          this.eventHandler.onDataProductUpdatedEvent(convertPayload(event, DataProductUpdatedEvent.class));
-      case "DataProductDeletedEvent" ->
-          this.eventHandler.onDataProductDeletedEvent(convertPayload(event, DataProductDeletedEvent.class));
-      case "OutputPortCreatedEvent" ->
-          this.eventHandler.onOutputPortCreatedEvent(convertPayload(event, OutputPortCreatedEvent.class));
-      case "OutputPortUpdatedEvent" ->
-          this.eventHandler.onOutputPortUpdatedEvent(convertPayload(event, OutputPortUpdatedEvent.class));
-      case "OutputPortDeletedEvent" ->
-          this.eventHandler.onOutputPortDeletedEvent(convertPayload(event, OutputPortDeletedEvent.class));
-      case "DataContractCreatedEvent" ->
-          this.eventHandler.onDataContractCreatedEvent(convertPayload(event, DataContractCreatedEvent.class));
-      case "DataContractUpdatedEvent" ->
-          this.eventHandler.onDataContractUpdatedEvent(convertPayload(event, DataContractUpdatedEvent.class));
-      case "DataContractDeletedEvent" ->
-          this.eventHandler.onDataContractDeletedEvent(convertPayload(event, DataContractDeletedEvent.class));
-      case "AccessCreatedEvent" ->
-          this.eventHandler.onAccessCreatedEvent(convertPayload(event, AccessCreatedEvent.class));
-      case "AccessUpdatedEvent" ->
-          this.eventHandler.onAccessUpdatedEvent(convertPayload(event, AccessUpdatedEvent.class));
-      case "AccessDeletedEvent" ->
-          this.eventHandler.onAccessDeletedEvent(convertPayload(event, AccessDeletedEvent.class));
-      case "AccessRequestedEvent" ->
-          this.eventHandler.onAccessRequestedEvent(convertPayload(event, AccessRequestedEvent.class));
-      case "AccessApprovedEvent" ->
-          this.eventHandler.onAccessApprovedEvent(convertPayload(event, AccessApprovedEvent.class));
-      case "AccessRejectedEvent" ->
-          this.eventHandler.onAccessRejectedEvent(convertPayload(event, AccessRejectedEvent.class));
-      case "AccessActivatedEvent" ->
-          this.eventHandler.onAccessActivatedEvent(convertPayload(event, AccessActivatedEvent.class));
-      case "AccessDeactivatedEvent" ->
-          this.eventHandler.onAccessDeactivatedEvent(convertPayload(event, AccessDeactivatedEvent.class));
-      case "SourceSystemCreatedEvent" ->
-          this.eventHandler.onSourceSystemCreatedEvent(convertPayload(event, SourceSystemCreatedEvent.class));
-      case "SourceSystemUpdatedEvent" ->
-          this.eventHandler.onSourceSystemUpdatedEvent(convertPayload(event, SourceSystemUpdatedEvent.class));
-      case "SourceSystemDeletedEvent" ->
-          this.eventHandler.onSourceSystemDeletedEvent(convertPayload(event, SourceSystemDeletedEvent.class));
-      case "TeamCreatedEvent" ->
-          this.eventHandler.onTeamCreatedEvent(convertPayload(event, TeamCreatedEvent.class));
-      case "TeamUpdatedEvent" ->
-          this.eventHandler.onTeamUpdatedEvent(convertPayload(event, TeamUpdatedEvent.class));
-      case "TeamDeletedEvent" ->
-          this.eventHandler.onTeamDeletedEvent(convertPayload(event, TeamDeletedEvent.class));
-      case "DefinitionCreatedEvent" ->
-          this.eventHandler.onDefinitionCreatedEvent(convertPayload(event, DefinitionCreatedEvent.class));
-      case "DefinitionUpdatedEvent" ->
-          this.eventHandler.onDefinitionUpdatedEvent(convertPayload(event, DefinitionUpdatedEvent.class));
-      case "DefinitionDeletedEvent" ->
-          this.eventHandler.onDefinitionDeletedEvent(convertPayload(event, DefinitionDeletedEvent.class));
-      case "TagCreatedEvent" ->
-          this.eventHandler.onTagCreatedEvent(convertPayload(event, TagCreatedEvent.class));
-      case "TagUpdatedEvent" ->
-          this.eventHandler.onTagUpdatedEvent(convertPayload(event, TagUpdatedEvent.class));
-      case "TagDeletedEvent" ->
-          this.eventHandler.onTagDeletedEvent(convertPayload(event, TagDeletedEvent.class));
-      case "AssetCreatedEvent" ->
-          this.eventHandler.onAssetCreatedEvent(convertPayload(event, AssetCreatedEvent.class));
-      case "AssetUpdatedEvent" ->
-          this.eventHandler.onAssetUpdatedEvent(convertPayload(event, AssetUpdatedEvent.class));
-      case "AssetDeletedEvent" ->
-          this.eventHandler.onAssetDeletedEvent(convertPayload(event, AssetDeletedEvent.class));
-      case "TestResultsCreatedEvent" -> this.eventHandler.onTestResultsCreatedEvent(
-          convertPayload(event, entropydata.sdk.client.model.TestResultsCreatedEvent.class));
-      case "TestResultsDeletedEvent" -> this.eventHandler.onTestResultsDeletedEvent(
-          convertPayload(event, entropydata.sdk.client.model.TestResultsDeletedEvent.class));
-      case "DataUsageAgreementCreatedEvent", "DataUsageAgreementUpdatedEvent",
-           "DataUsageAgreementDeletedEvent", "DataUsageAgreementRequestedEvent",
-           "DataUsageAgreementApprovedEvent", "DataUsageAgreementRejectedEvent",
-           "DataUsageAgreementActivatedEvent", "DataUsageAgreementDeactivatedEvent" ->
-          log.debug("Ignore deprecated event");
-      default -> log.warn("Unknown event type: {}", event.getType());
+    this.pollingPolicy = pollingPolicy.withMaxInterval(pollInterval);
+  }
 
-    }
+  public EntropyDataPollingPolicy getPollingPolicy() {
+    return pollingPolicy;
+  }
 
+  public void setPollingPolicy(EntropyDataPollingPolicy pollingPolicy) {
+    this.pollingPolicy = Objects.requireNonNull(pollingPolicy, "pollingPolicy must not be null");
   }
 
-  private <T> T convertPayload(entropydata.sdk.client.model.CloudEvent event, Class<T> payloadType) {
-    var data = event.getData();
-    return objectMapper.convertValue(data, payloadType);
+  public EntropyDataCheckpointPolicy getCheckpointPolicy() {
+    return checkpointPolicy;
   }
 
+  public void setCheckpointPolicy(EntropyDataCheckpointPolicy checkpointPolicy) {
+    this.checkpointPolicy = Objects.requireNonNull(checkpointPolicy, "checkpointPolicy must not be null");
+    this.checkpointer.setPolicy(checkpointPolicy);
+  }
+
+  /**
+   * The number of processed events that have not been saved as checkpoint yet.
+   * These events are processed again if the listener is restarted.
+   */
+  public long getCheckpointLag() {
+    return checkpointer.getCheckpointLag();
+  }
+
+  /**
+   * The lastEventId that has been saved in the state repository by the last checkpoint.
+   */
+  @Nullable
+  public String getLastCheckpointEventId() {
+    return checkpointer.getLastCheckpointEventId();
+  }
+
+  public Instant getLastCheckpointTime() {
+    return checkpointer.getLastCheckpointTime();
+  }
+
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  public void setConcurrency(int concurrency) {
+    this.concurrency = concurrency;
+  }
+
+  public int getMaxPendingEvents() {
+    return maxPendingEvents;
+  }
+
+  public void setMaxPendingEvents(int maxPendingEvents) {
+    this.maxPendingEvents = maxPendingEvents;
+  }
+
+  private void processEvent(EntropyDataEventDispatcher.Event event) {
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      dispatcher.dispatch(event);
+      failed = false;
+    } finally {
+      metrics.recordEvent(connectorId, event.cloudEvent().getType(), System.nanoTime() - start, failed);
+    }
+  }
 
 }
@@ -0,0 +1,220 @@
+package entropydata.sdk;
+
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Objects;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.entity.GzipCompressingEntity;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * The HTTP connection pool used by EntropyDataClient.
+ * <p>
+ * A transport can be shared by several clients in one JVM, e.g., for clients with different API keys,
+ * so that they share the pooled keep-alive connections. A shared transport must be closed by its owner,
+ * after all clients using it are no longer used.
+ *
+ * <pre>{@code
+ * var transport = EntropyDataHttpTransport.builder().maxConnections(50).build();
+ * var client = EntropyDataClient.builder().host(host).apiKey(apiKey).transport(transport).build();
+ * }</pre>
+ */
+public class EntropyDataHttpTransport implements AutoCloseable {
+
+  private final CloseableHttpClient httpClient;
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final EntropyDataRetryHandler retryHandler;
+
+  private EntropyDataHttpTransport(Builder builder) {
+    this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(builder.maxConnections)
+        .setMaxConnPerRoute(builder.maxConnectionsPerRoute)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(builder.connectTimeout))
+            .setSocketTimeout(Timeout.of(builder.responseTimeout))
+            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+            .build())
+        .build();
+
+    HttpClientBuilder httpClientBuilder = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(builder.connectionRequestTimeout))
+            .setResponseTimeout(Timeout.of(builder.responseTimeout))
+            .setConnectionKeepAlive(TimeValue.of(builder.keepAlive))
+            .setContentCompressionEnabled(builder.responseCompression)
+            .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(builder.keepAlive));
+    if (!builder.responseCompression) {
+      httpClientBuilder.disableContentCompression();
+    }
+    if (builder.requestCompression) {
+      int threshold = builder.requestCompressionThreshold;
+      // an exec interceptor, so that the protocol interceptors see the compressed entity
+      httpClientBuilder.addExecInterceptorFirst("request-compression", (request, scope, chain) -> {
+        var entity = request.getEntity();
+        if (entity != null
+            && entity.getContentEncoding() == null
+            && entity.getContentLength() >= threshold
+            && !request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+          request.setEntity(new GzipCompressingEntity(entity));
+        }
+        return chain.proceed(request, scope);
+      });
+    }
+    if (builder.retryHandler != null) {
+      // replaces the built-in retries, and runs before all other handlers, so that every attempt is rate limited
+      httpClientBuilder.disableAutomaticRetries();
+      httpClientBuilder.addExecInterceptorFirst("entropy-data-retry", builder.retryHandler);
+    }
+    this.retryHandler = builder.retryHandler;
+    this.httpClient = httpClientBuilder.build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public CloseableHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * The retry handler of this transport, or null if retries are disabled.
+   */
+  @Nullable
+  public EntropyDataRetryHandler getRetryHandler() {
+    return retryHandler;
+  }
+
+  /**
+   * The number of connections that are currently leased, available, and pending in the pool.
+   */
+  public String getPoolStats() {
+    return connectionManager.getTotalStats().toString();
+  }
+
+  @Override
+  public void close() {
+    try {
+      httpClient.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close HTTP transport", e);
+    }
+  }
+
+  public static class Builder {
+
+    private int maxConnections = 20;
+    private int maxConnectionsPerRoute = 20;
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+    private Duration responseTimeout = Duration.ofSeconds(60);
+    private boolean responseCompression = true;
+    private boolean requestCompression = false;
+    private int requestCompressionThreshold = 1024;
+    private EntropyDataRetryHandler retryHandler;
+
+    private Builder() {
+    }
+
+    /**
+     * The maximum number of pooled connections in total. Default: 20.
+     */
+    public Builder maxConnections(int maxConnections) {
+      this.maxConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * The maximum number of pooled connections per host. Default: 20.
+     */
+    public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+      this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+      return this;
+    }
+
+    /**
+     * How long an idle connection is kept open, if the server does not send a Keep-Alive header. Default: 30 seconds.
+     */
+    public Builder keepAlive(Duration keepAlive) {
+      this.keepAlive = Objects.requireNonNull(keepAlive, "keepAlive must not be null");
+      return this;
+    }
+
+    /**
+     * The timeout to establish a connection. Default: 10 seconds.
+     */
+    public Builder connectTimeout(Duration connectTimeout) {
+      this.connectTimeout = Objects.requireNonNull(connectTimeout, "connectTimeout must not be null");
+      return this;
+    }
+
+    /**
+     * The timeout to lease a connection from the pool, when all connections are in use. Default: 30 seconds.
+     */
+    public Builder connectionRequestTimeout(Duration connectionRequestTimeout) {
+      this.connectionRequestTimeout = Objects.requireNonNull(connectionRequestTimeout, "connectionRequestTimeout must not be null");
+      return this;
+    }
+
+    /**
+     * The maximum time of inactivity while waiting for response data, so that a hung connection does not block forever.
+     * Default: 60 seconds.
+     */
+    public Builder responseTimeout(Duration responseTimeout) {
+      this.responseTimeout = Objects.requireNonNull(responseTimeout, "responseTimeout must not be null");
+      return this;
+    }
+
+    /**
+     * Requests gzip or deflate compressed responses and decompresses them transparently. Default: enabled.
+     */
+    public Builder responseCompression(boolean responseCompression) {
+      this.responseCompression = responseCompression;
+      return this;
+    }
+
+    /**
+     * Compresses request bodies of at least the request compression threshold (default: 1 KiB) with gzip. Default: disabled.
+     */
+    public Builder requestCompression(boolean requestCompression) {
+      this.requestCompression = requestCompression;
+      return this;
+    }
+
+    public Builder requestCompressionThreshold(int requestCompressionThreshold) {
+      this.requestCompressionThreshold = requestCompressionThreshold;
+      return this;
+    }
+
+    /**
+     * The handler for rate limiting, retries, and circuit breaking of all requests, e.g., {@code new EntropyDataRetryHandler()}.
+     * Default: none, the built-in retries of the HTTP client apply.
+     */
+    public Builder retryHandler(@Nullable EntropyDataRetryHandler retryHandler) {
+      this.retryHandler = retryHandler;
+      return this;
+    }
+
+    public EntropyDataHttpTransport build() {
+      if (maxConnections < 1 || maxConnectionsPerRoute < 1) {
+        throw new IllegalArgumentException("maxConnections and maxConnectionsPerRoute must be positive");
+      }
+      return new EntropyDataHttpTransport(this);
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+package entropydata.sdk;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tasks in parallel with a bounded concurrency, while tasks with the same key run strictly in submission order.
+ * <p>
+ * If a task fails, the later tasks with the same key do not run and complete exceptionally with the same exception, so that
+ * no task runs before a failed task with the same key. This lasts until {@link #awaitCompletion()} returns, after which the
+ * failed tasks can be submitted again, e.g., when the batch is retried.
+ * <p>
+ * The number of submitted but not yet completed tasks is bounded, so that {@link #submit(String, Runnable)} blocks the
+ * caller when the executor falls behind (backpressure). Uses virtual threads on Java 21 and later, and a fixed pool of
+ * platform threads on older versions.
+ */
+final class EntropyDataKeyedExecutor implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataKeyedExecutor.class);
+
+  private final ExecutorService executor;
+  private final Semaphore running; // bounds concurrency for virtual threads, null for a fixed thread pool
+  private final Semaphore inFlight;
+  // key: task key, value: last task, which is kept if it has failed
+  private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Object drained = new Object();
+
+  EntropyDataKeyedExecutor(String name, int concurrency, int maxInFlight) {
+    if (concurrency < 1 || maxInFlight < concurrency) {
+      throw new IllegalArgumentException("concurrency must be positive and maxInFlight must be at least concurrency");
+    }
+    ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+    if (virtualThreadExecutor != null) {
+      this.executor = virtualThreadExecutor;
+      this.running = new Semaphore(concurrency);
+    } else {
+      var threadCount = new AtomicInteger();
+      this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+        var thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.running = null;
+    }
+    this.inFlight = new Semaphore(maxInFlight);
+  }
+
+  /**
+   * Submits a task that runs after all previously submitted tasks with the same key have completed successfully.
+   * Blocks while the maximum number of tasks is in flight.
+   */
+  CompletableFuture<Void> submit(String key, Runnable task) throws InterruptedException {
+    inFlight.acquire();
+    pending.incrementAndGet();
+    Runnable boundedTask = running == null ? task : () -> {
+      running.acquireUninterruptibly();
+      try {
+        task.run();
+      } finally {
+        running.release();
+      }
+    };
+    CompletableFuture<Void> future = tails.compute(key, (k, tail) -> tail == null
+        ? CompletableFuture.runAsync(boundedTask, executor)
+        : tail.thenRunAsync(boundedTask, executor));
+    future.whenComplete((result, e) -> {
+      if (e == null) {
+        tails.remove(key, future);
+      }
+      inFlight.release();
+      if (pending.decrementAndGet() == 0) {
+        synchronized (drained) {
+          drained.notifyAll();
+        }
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Waits until all submitted tasks have completed, and then lets tasks with the key of a failed task run again.
+   */
+  void awaitCompletion() throws InterruptedException {
+    synchronized (drained) {
+      while (pending.get() > 0) {
+        drained.wait();
+      }
+    }
+    tails.values().removeIf(CompletableFuture::isCompletedExceptionally);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (NoSuchMethodException e) {
+      return null;
+    } catch (ReflectiveOperationException e) {
+      log.warn("Failed to create virtual thread executor, falling back to platform threads", e);
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,470 @@
+package entropydata.sdk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import entropydata.sdk.client.model.OpenLineageRunEvent;
+import entropydata.sdk.client.model.OpenLineageRunEvent.EventTypeEnum;
+import jakarta.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends OpenLineage run events to Entropy Data in the background, so that jobs do not wait for the API.
+ * <p>
+ * {@link #emit} queues the event and returns immediately. Events are delivered by a few worker threads; the events of one run
+ * are delivered in order, events of different runs in parallel. While an event is queued, later events of the same run
+ * supersede it if it carries no information of its own: a RUNNING event replaces a queued RUNNING event, and a COMPLETE, FAIL,
+ * or ABORT event removes the queued RUNNING events. START events are never coalesced. RUNNING events should therefore contain
+ * all datasets known so far.
+ * <p>
+ * When the queue is full, events are dropped and counted, or, with a spill file, appended to the spill file and delivered
+ * from there once the queue has drained. Spilled events survive a restart and are delivered at least once.
+ */
+public class EntropyDataLineageEmitter implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataLineageEmitter.class);
+
+  private static final Duration shutdownTimeout = Duration.ofMinutes(1);
+  private static final Duration minReplayBackoff = Duration.ofSeconds(1);
+  private static final Duration maxReplayBackoff = Duration.ofMinutes(5);
+
+  record QueuedEvent(OpenLineageRunEvent event, @Nullable String dataProductId, @Nullable String outputPortName) {
+  }
+
+  private final EntropyDataClient client;
+  private final ObjectMapper objectMapper;
+  private final int capacity;
+  private final Path spillFile;
+  private final Path replayFile;
+  private final Thread[] workers;
+  private final Thread replayThread;
+
+  // guarded by lock
+  private final Object lock = new Object();
+  private final Map<String, ArrayDeque<QueuedEvent>> queuedByRun = new HashMap<>();
+  private final ArrayDeque<String> readyRuns = new ArrayDeque<>(); // may contain runs twice, or runs without queued events
+  private final Set<String> runsInFlight = new HashSet<>();
+  private int queuedEvents = 0;
+  private boolean spilling = false; // once events are spilled, all events are spilled until the spill file is replayed, to keep the order
+  private BufferedWriter spillWriter;
+  private boolean closed = false;
+
+  private final AtomicLong deliveredEvents = new AtomicLong();
+  private final AtomicLong coalescedEvents = new AtomicLong();
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final AtomicLong failedEvents = new AtomicLong();
+  private final AtomicLong spilledEvents = new AtomicLong();
+
+  public EntropyDataLineageEmitter(EntropyDataClient client) {
+    this(client, 4, 10_000, null);
+  }
+
+  /**
+   * @param parallelism the maximum number of requests in flight
+   * @param capacity the maximum number of queued events, further events are spilled or dropped
+   * @param spillFile a local file for the events that do not fit into the queue, or null to drop them
+   */
+  public EntropyDataLineageEmitter(EntropyDataClient client, int parallelism, int capacity, @Nullable Path spillFile) {
+    this.client = Objects.requireNonNull(client, "client must not be null");
+    if (parallelism < 1 || capacity < 1) {
+      throw new IllegalArgumentException("parallelism and capacity must be positive");
+    }
+    this.objectMapper = client.getApiClient().getObjectMapper();
+    this.capacity = capacity;
+    this.spillFile = spillFile;
+    this.replayFile = spillFile != null ? spillFile.resolveSibling(spillFile.getFileName() + ".replay") : null;
+    if (spillFile != null) {
+      // events spilled before the last shutdown are delivered first
+      this.spilling = Files.exists(spillFile) || Files.exists(replayFile);
+    }
+
+    this.workers = new Thread[parallelism];
+    for (int i = 0; i < parallelism; i++) {
+      workers[i] = new Thread(this::deliverEvents, "entropy-data-lineage-" + (i + 1));
+      workers[i].setDaemon(true);
+      workers[i].start();
+    }
+    if (spillFile != null) {
+      replayThread = new Thread(this::replaySpilledEvents, "entropy-data-lineage-replay");
+      replayThread.setDaemon(true);
+      replayThread.start();
+    } else {
+      replayThread = null;
+    }
+  }
+
+  public boolean emit(OpenLineageRunEvent event) {
+    return emit(event, null, null);
+  }
+
+  /**
+   * Queues an event for delivery. Returns false if the event has been dropped, because the queue is full and there is no spill file,
+   * or because the emitter is closed.
+   *
+   * @see entropydata.sdk.client.api.LineageApi#postLineageEvent(OpenLineageRunEvent, String, String)
+   */
+  public boolean emit(OpenLineageRunEvent event, @Nullable String dataProductId, @Nullable String outputPortName) {
+    Objects.requireNonNull(event, "event must not be null");
+    var queuedEvent = new QueuedEvent(event, dataProductId, outputPortName);
+    synchronized (lock) {
+      if (closed) {
+        droppedEvents.incrementAndGet();
+        return false;
+      }
+      if (!spilling) {
+        if (coalesce(queuedEvent)) {
+          return true;
+        }
+        if (queuedEvents < capacity) {
+          enqueue(queuedEvent);
+          return true;
+        }
+      }
+      if (spillFile != null && spill(queuedEvent)) {
+        return true;
+      }
+      droppedEvents.incrementAndGet();
+      return false;
+    }
+  }
+
+  /**
+   * Applies the event to the queued events of its run. Returns true if the event has replaced a queued event.
+   */
+  private boolean coalesce(QueuedEvent queuedEvent) {
+    var eventType = queuedEvent.event().getEventType();
+    var queue = queuedByRun.get(runKey(queuedEvent));
+    if (queue == null || queue.isEmpty() || eventType == null) {
+      return false;
+    }
+    if (eventType == EventTypeEnum.RUNNING) {
+      var last = queue.peekLast();
+      if (last.event().getEventType() == EventTypeEnum.RUNNING && Objects.equals(last.dataProductId(), queuedEvent.dataProductId())
+          && Objects.equals(last.outputPortName(), queuedEvent.outputPortName())) {
+        queue.pollLast();
+        queue.addLast(queuedEvent);
+        coalescedEvents.incrementAndGet();
+        return true;
+      }
+    } else if (eventType != EventTypeEnum.START) {
+      int before = queue.size();
+      queue.removeIf(queued -> queued.event().getEventType() == EventTypeEnum.RUNNING);
+      int removed = before - queue.size();
+      queuedEvents -= removed;
+      coalescedEvents.addAndGet(removed);
+    }
+    return false;
+  }
+
+  private void enqueue(QueuedEvent queuedEvent) {
+    var runKey = runKey(queuedEvent);
+    queuedByRun.computeIfAbsent(runKey, key -> new ArrayDeque<>()).addLast(queuedEvent);
+    queuedEvents++;
+    if (!runsInFlight.contains(runKey)) {
+      readyRuns.addLast(runKey);
+    }
+    lock.notifyAll();
+  }
+
+  private static String runKey(QueuedEvent queuedEvent) {
+    var run = queuedEvent.event().getRun();
+    if (run == null || run.getRunId() == null) {
+      // not coalesced and not ordered
+      return UUID.randomUUID().toString();
+    }
+    return run.getRunId();
+  }
+
+  private void deliverEvents() {
+    while (true) {
+      String runKey;
+      QueuedEvent next;
+      synchronized (lock) {
+        while (true) {
+          runKey = readyRuns.pollFirst();
+          if (runKey == null) {
+            if (closed && queuedEvents == 0) {
+              return;
+            }
+            try {
+              lock.wait();
+            } catch (InterruptedException e) {
+              return;
+            }
+            continue;
+          }
+          var queue = queuedByRun.get(runKey);
+          if (runsInFlight.contains(runKey) || queue == null) {
+            continue;
+          }
+          if (queue.isEmpty()) {
+            queuedByRun.remove(runKey);
+            continue;
+          }
+          next = queue.pollFirst();
+          queuedEvents--;
+          runsInFlight.add(runKey);
+          // there is space for replayed events now
+          lock.notifyAll();
+          break;
+        }
+      }
+
+      deliver(next);
+
+      synchronized (lock) {
+        runsInFlight.remove(runKey);
+        var queue = queuedByRun.get(runKey);
+        if (queue != null && !queue.isEmpty()) {
+          readyRuns.addLast(runKey);
+        } else {
+          queuedByRun.remove(runKey);
+        }
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void deliver(QueuedEvent queuedEvent) {
+    try {
+      client.getLineageApi().postLineageEvent(queuedEvent.event(), queuedEvent.dataProductId(), queuedEvent.outputPortName());
+      deliveredEvents.incrementAndGet();
+    } catch (RuntimeException e) {
+      // a POST is only retried by an EntropyDataRetryHandler of the transport, and only if it has not reached the server
+      failedEvents.incrementAndGet();
+      log.warn("Failed to deliver lineage event for run {}", runKey(queuedEvent), e);
+    }
+  }
+
+  /**
+   * Appends the event to the spill file. Must be called with the lock held.
+   */
+  private boolean spill(QueuedEvent queuedEvent) {
+    try {
+      if (spillWriter == null) {
+        spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+      spillWriter.write(objectMapper.writeValueAsString(queuedEvent));
+      spillWriter.newLine();
+      spillWriter.flush();
+      spilling = true;
+      spilledEvents.incrementAndGet();
+      return true;
+    } catch (IOException e) {
+      log.error("Failed to spill lineage event to {}", spillFile, e);
+      return false;
+    }
+  }
+
+  private void closeSpillWriter() {
+    if (spillWriter != null) {
+      try {
+        spillWriter.close();
+      } catch (IOException e) {
+        log.warn("Failed to close spill file {}", spillFile, e);
+      }
+      spillWriter = null;
+    }
+  }
+
+  /**
+   * When the queue has drained, moves the spill file aside and queues its events, while new events are spilled to a new file.
+   * After an I/O error, the replay is retried with a backoff, so that the spilled events are delivered once the file is readable.
+   */
+  private void replaySpilledEvents() {
+    long backoffMillis = minReplayBackoff.toMillis();
+    while (true) {
+      try {
+        if (!replayNextSpillFile()) {
+          return;
+        }
+        backoffMillis = minReplayBackoff.toMillis();
+      } catch (InterruptedException e) {
+        return;
+      } catch (IOException | UncheckedIOException e) {
+        log.error("Failed to replay spilled lineage events from {}, retrying in {} ms", replayFile, backoffMillis, e);
+        synchronized (lock) {
+          long deadline = System.nanoTime() + backoffMillis * 1_000_000;
+          long remaining;
+          try {
+            while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+              lock.wait(Math.max(1, remaining / 1_000_000));
+            }
+          } catch (InterruptedException ex) {
+            return;
+          }
+          if (closed) {
+            return;
+          }
+        }
+        backoffMillis = Math.min(backoffMillis * 2, maxReplayBackoff.toMillis());
+      }
+    }
+  }
+
+  /**
+   * Waits until there is a spill file to replay and space in the queue, and replays it. Returns false if the emitter has been
+   * closed meanwhile.
+   */
+  private boolean replayNextSpillFile() throws IOException, InterruptedException {
+    synchronized (lock) {
+      while (!closed && !Files.exists(replayFile) && !(spilling && queuedEvents <= capacity / 2)) {
+        lock.wait();
+      }
+      if (closed) {
+        return false;
+      }
+      if (!Files.exists(replayFile)) {
+        if (!Files.exists(spillFile)) {
+          spilling = false;
+          return true;
+        }
+        closeSpillWriter();
+        Files.move(spillFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+
+    if (!replay(replayFile)) {
+      return false;
+    }
+    Files.delete(replayFile);
+
+    synchronized (lock) {
+      if (!Files.exists(spillFile)) {
+        spilling = false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Queues the events of the file, waiting for space in the queue. Lines that cannot be decoded, e.g., a line that has been
+   * written partially before a crash, are skipped and counted as dropped. Returns false if the emitter has been closed meanwhile.
+   */
+  private boolean replay(Path file) throws IOException, InterruptedException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        QueuedEvent queuedEvent;
+        try {
+          queuedEvent = objectMapper.readValue(line, QueuedEvent.class);
+        } catch (JsonProcessingException e) {
+          droppedEvents.incrementAndGet();
+          log.warn("Skipping spilled lineage event in {} that cannot be decoded: {}", file, e.getOriginalMessage());
+          continue;
+        }
+        synchronized (lock) {
+          while (!closed && queuedEvents >= capacity) {
+            lock.wait();
+          }
+          if (closed) {
+            return false;
+          }
+          enqueue(queuedEvent);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The number of events that have been delivered.
+   */
+  public long getDeliveredEvents() {
+    return deliveredEvents.get();
+  }
+
+  /**
+   * The number of events that have been superseded by a later event of the same run before delivery.
+   */
+  public long getCoalescedEvents() {
+    return coalescedEvents.get();
+  }
+
+  /**
+   * The number of events that have been dropped, because the queue was full or the emitter was closed, or because they could not be
+   * decoded from the spill file.
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+
+  /**
+   * The number of events that could not be delivered.
+   */
+  public long getFailedEvents() {
+    return failedEvents.get();
+  }
+
+  /**
+   * The number of events that have been written to the spill file.
+   */
+  public long getSpilledEvents() {
+    return spilledEvents.get();
+  }
+
+  public int getQueuedEvents() {
+    synchronized (lock) {
+      return queuedEvents;
+    }
+  }
+
+  /**
+   * Stops accepting events, and delivers the queued events. Events that are still queued after one minute are spilled,
+   * or dropped without a spill file. Events in the spill file are delivered after the next start.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+      lock.notifyAll();
+    }
+    long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+    try {
+      for (var worker : workers) {
+        worker.join(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+      }
+      if (replayThread != null) {
+        replayThread.join(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (lock) {
+      for (var queue : queuedByRun.values()) {
+        for (var queuedEvent : queue) {
+          if (spillFile == null || !spill(queuedEvent)) {
+            droppedEvents.incrementAndGet();
+          }
+        }
+      }
+      queuedByRun.clear();
+      readyRuns.clear();
+      queuedEvents = 0;
+      closeSpillWriter();
+      lock.notifyAll();
+    }
+  }
+
+}
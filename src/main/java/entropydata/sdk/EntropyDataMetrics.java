@@ -0,0 +1,84 @@
+package entropydata.sdk;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Receives measurements of the client, the event listener, and the assets synchronizer, e.g., to record them in a
+ * Micrometer MeterRegistry or with OpenTelemetry.
+ * <p>
+ * All methods have an empty default implementation, so an implementation only overrides what it records.
+ * Without a configured implementation, {@link #NOOP} is used, which the JIT compiles away.
+ * Implementations are called on the request, event, and asset threads, so they must be thread-safe and fast.
+ *
+ * <pre>{@code
+ * var client = EntropyDataClient.builder()
+ *     .host("https://api.entropy-data.com")
+ *     .apiKey("ed_live_...")
+ *     .metrics(new MyMicrometerMetrics(meterRegistry))
+ *     .build();
+ * }</pre>
+ */
+public interface EntropyDataMetrics {
+
+  EntropyDataMetrics NOOP = new EntropyDataMetrics() {
+  };
+
+  enum AssetOutcome {
+    /** The asset has been sent by the provider. */
+    SCANNED,
+    /** The asset is unchanged and has not been written. */
+    SKIPPED,
+    /** The asset has been saved. */
+    WRITTEN,
+    /** The asset has been deleted. */
+    DELETED
+  }
+
+  /**
+   * An API request of the EntropyDataClient has completed.
+   *
+   * @param api the first path segment after /api/, e.g., "dataproducts"
+   * @param method the HTTP method
+   * @param status the HTTP status code, or 0 if no response has been received
+   * @param durationNanos the duration including retries
+   */
+  default void recordRequest(String api, String method, int status, long durationNanos) {
+  }
+
+  /**
+   * The event handlers of an EntropyDataEventListener have processed an event.
+   *
+   * @param eventType the type of the CloudEvent
+   * @param durationNanos the duration of all handlers for this event
+   * @param failed whether a handler has thrown an exception
+   */
+  default void recordEvent(String connectorId, String eventType, long durationNanos, boolean failed) {
+  }
+
+  /**
+   * The time between the creation of the last processed event and its processing, i.e., how far the listener is behind the feed.
+   */
+  default void recordEventLag(String connectorId, long lagMillis) {
+  }
+
+  /**
+   * An EntropyDataEventListener has been created. The supplier returns the number of processed events that have not been saved
+   * as checkpoint yet, i.e., the events that would be processed again after a restart. Register it as a gauge, e.g., with
+   * Micrometer's {@code Gauge.builder("entropydata.events.checkpoint.lag", checkpointLag::getAsLong)}.
+   */
+  default void registerCheckpointLag(String connectorId, LongSupplier checkpointLag) {
+  }
+
+  /**
+   * An asset has been scanned, skipped, written, or deleted by an EntropyDataAssetsSynchronizer.
+   */
+  default void recordAsset(String connectorId, AssetOutcome outcome) {
+  }
+
+  /**
+   * A synchronization cycle of an EntropyDataAssetsSynchronizer has completed.
+   */
+  default void recordSynchronization(String connectorId, long durationNanos, boolean failed) {
+  }
+
+}
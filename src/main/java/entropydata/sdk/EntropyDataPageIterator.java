@@ -0,0 +1,114 @@
+package entropydata.sdk;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates lazily over the items of a paged list endpoint.
+ * <p>
+ * Only the current page is held in memory, so consumed pages become eligible for garbage collection. While the current page
+ * is consumed, the next page is fetched in the background. Fetching stops after a page without a Link rel="next" header.
+ */
+final class EntropyDataPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+  private static final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(runnable -> {
+    var thread = new Thread(runnable, "entropy-data-page-prefetch-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Fetches a page. Must be called on the thread that executed the request, as the Link header is read from a thread-local.
+   */
+  @FunctionalInterface
+  interface PageFetcher<T> {
+    Page<T> fetch(int page);
+  }
+
+  record Page<T>(List<T> items, boolean hasNext) {
+  }
+
+  private final PageFetcher<T> pageFetcher;
+  private Iterator<T> current = Collections.emptyIterator();
+  private CompletableFuture<Page<T>> next;
+  private int nextPage = 0;
+  private boolean done = false;
+
+  EntropyDataPageIterator(PageFetcher<T> pageFetcher) {
+    this.pageFetcher = pageFetcher;
+  }
+
+  /**
+   * A sequential stream over all items. Closing the stream cancels a pending prefetch.
+   */
+  static <T> Stream<T> stream(PageFetcher<T> pageFetcher) {
+    var iterator = new EntropyDataPageIterator<>(pageFetcher);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(iterator::close);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      if (done) {
+        return false;
+      }
+      if (next == null) {
+        // the first page is fetched on first use
+        next = prefetch();
+      }
+      Page<T> page = await(next);
+      done = !page.hasNext() || page.items().isEmpty();
+      next = done ? null : prefetch();
+      current = page.items().iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  @Override
+  public void close() {
+    done = true;
+    if (next != null) {
+      next.cancel(true);
+      next = null;
+    }
+    current = Collections.emptyIterator();
+  }
+
+  private CompletableFuture<Page<T>> prefetch() {
+    int page = nextPage++;
+    return CompletableFuture.supplyAsync(() -> pageFetcher.fetch(page), prefetchExecutor);
+  }
+
+  private static <T> Page<T> await(CompletableFuture<Page<T>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+}
@@ -0,0 +1,167 @@
+package entropydata.sdk;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Defines when the EntropyDataEventListener polls the events feed.
+ * <p>
+ * A full page of events is followed by the next poll immediately. After a page with fewer events, the feed is caught up and the
+ * next poll follows after the minimum interval. While the feed stays empty, the interval doubles with every empty poll up to
+ * the maximum interval. After a failed poll, the interval starts at 5 seconds and doubles up to the maximum error interval.
+ * All intervals are multiplied by a random factor between 1 - jitter and 1 + jitter, so that many listeners that are started
+ * together do not poll at the same time.
+ */
+public final class EntropyDataPollingPolicy {
+
+  /**
+   * The maximum number of events per page of the events feed.
+   */
+  static final int pageSize = 1000;
+
+  private static final Duration minErrorInterval = Duration.ofSeconds(5);
+
+  private final Duration minInterval;
+  private final Duration maxInterval;
+  private final Duration maxErrorInterval;
+  private final double jitter;
+  private final boolean longPolling;
+
+  private EntropyDataPollingPolicy(Duration minInterval, Duration maxInterval, Duration maxErrorInterval, double jitter,
+      boolean longPolling) {
+    this.minInterval = minInterval;
+    this.maxInterval = maxInterval;
+    this.maxErrorInterval = maxErrorInterval;
+    this.jitter = jitter;
+    this.longPolling = longPolling;
+  }
+
+  /**
+   * Polls after the minimum interval when the feed is caught up, and backs off to the maximum interval while it is empty.
+   * Both intervals must be positive.
+   */
+  public static EntropyDataPollingPolicy adaptive(Duration minInterval, Duration maxInterval) {
+    Objects.requireNonNull(minInterval, "minInterval must not be null");
+    Objects.requireNonNull(maxInterval, "maxInterval must not be null");
+    // a zero interval would poll an empty feed in a busy loop
+    if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+      throw new IllegalArgumentException("minInterval must be positive and maxInterval must be at least minInterval");
+    }
+    return new EntropyDataPollingPolicy(minInterval, maxInterval, Duration.ofMinutes(5), 0.2, false);
+  }
+
+  /**
+   * Polls with the same interval when the feed is caught up or empty, and immediately after a full page.
+   */
+  public static EntropyDataPollingPolicy fixed(Duration interval) {
+    return adaptive(interval, interval);
+  }
+
+  /**
+   * The default policy polls 1 second after the feed is caught up, and backs off to 5 seconds while it is empty.
+   */
+  public static EntropyDataPollingPolicy defaultPolicy() {
+    return adaptive(Duration.ofSeconds(1), Duration.ofSeconds(5));
+  }
+
+  /**
+   * Sets the maximum interval, and lowers the minimum interval to it if necessary.
+   */
+  public EntropyDataPollingPolicy withMaxInterval(Duration maxInterval) {
+    Objects.requireNonNull(maxInterval, "maxInterval must not be null");
+    var policy = adaptive(minInterval.compareTo(maxInterval) > 0 ? maxInterval : minInterval, maxInterval);
+    return new EntropyDataPollingPolicy(policy.minInterval, policy.maxInterval, maxErrorInterval, jitter, longPolling);
+  }
+
+  public EntropyDataPollingPolicy withMaxErrorInterval(Duration maxErrorInterval) {
+    Objects.requireNonNull(maxErrorInterval, "maxErrorInterval must not be null");
+    if (maxErrorInterval.isNegative() || maxErrorInterval.isZero()) {
+      throw new IllegalArgumentException("maxErrorInterval must be positive");
+    }
+    return new EntropyDataPollingPolicy(minInterval, maxInterval, maxErrorInterval, jitter, longPolling);
+  }
+
+  /**
+   * @param jitter the maximum random deviation of an interval, as a ratio of the interval, e.g., 0.2 for +/- 20%
+   */
+  public EntropyDataPollingPolicy withJitter(double jitter) {
+    if (jitter < 0 || jitter >= 1) {
+      throw new IllegalArgumentException("jitter must be at least 0 and less than 1");
+    }
+    return new EntropyDataPollingPolicy(minInterval, maxInterval, maxErrorInterval, jitter, longPolling);
+  }
+
+  /**
+   * With long polling, the server holds an empty poll open until events arrive, so the listener polls again after the minimum
+   * interval instead of backing off. The response timeout of the client must be longer than the time the server holds a poll.
+   * The API documents this mode as discouraged, so it is disabled by default.
+   */
+  public EntropyDataPollingPolicy withLongPolling(boolean longPolling) {
+    return new EntropyDataPollingPolicy(minInterval, maxInterval, maxErrorInterval, jitter, longPolling);
+  }
+
+  public Duration getMinInterval() {
+    return minInterval;
+  }
+
+  public Duration getMaxInterval() {
+    return maxInterval;
+  }
+
+  public Duration getMaxErrorInterval() {
+    return maxErrorInterval;
+  }
+
+  public double getJitter() {
+    return jitter;
+  }
+
+  public boolean isLongPolling() {
+    return longPolling;
+  }
+
+  /**
+   * The delay after a page with the given number of events.
+   *
+   * @param emptyPolls the number of empty pages in a row, including this page
+   */
+  Duration delayAfterPage(int events, int emptyPolls) {
+    if (events >= pageSize) {
+      return Duration.ZERO;
+    }
+    if (events > 0 || longPolling) {
+      return jittered(minInterval);
+    }
+    return jittered(backoff(minInterval, maxInterval, emptyPolls));
+  }
+
+  /**
+   * The delay after a failed poll.
+   *
+   * @param failedPolls the number of failed polls in a row, including this poll
+   */
+  Duration delayAfterError(int failedPolls) {
+    return jittered(backoff(minErrorInterval.compareTo(maxErrorInterval) > 0 ? maxErrorInterval : minErrorInterval,
+        maxErrorInterval, failedPolls));
+  }
+
+  private static Duration backoff(Duration initial, Duration max, int attempts) {
+    // 2^30 milliseconds are more than 12 days
+    long millis = initial.toMillis() << Math.min(Math.max(attempts - 1, 0), 30);
+    return millis < 0 || millis > max.toMillis() ? max : Duration.ofMillis(millis);
+  }
+
+  private Duration jittered(Duration delay) {
+    if (jitter == 0 || delay.isZero()) {
+      return delay;
+    }
+    return Duration.ofMillis(Math.round(delay.toMillis() * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1))));
+  }
+
+  @Override
+  public String toString() {
+    return "EntropyDataPollingPolicy{minInterval=" + minInterval + ", maxInterval=" + maxInterval + ", maxErrorInterval="
+        + maxErrorInterval + ", jitter=" + jitter + ", longPolling=" + longPolling + "}";
+  }
+}
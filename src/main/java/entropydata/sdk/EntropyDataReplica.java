@@ -0,0 +1,368 @@
+package entropydata.sdk;
+
+import entropydata.sdk.client.ApiException;
+import entropydata.sdk.client.model.Access;
+import entropydata.sdk.client.model.AccessActivatedEvent;
+import entropydata.sdk.client.model.AccessApprovedEvent;
+import entropydata.sdk.client.model.AccessCreatedEvent;
+import entropydata.sdk.client.model.AccessDeactivatedEvent;
+import entropydata.sdk.client.model.AccessDeletedEvent;
+import entropydata.sdk.client.model.AccessRejectedEvent;
+import entropydata.sdk.client.model.AccessRequestedEvent;
+import entropydata.sdk.client.model.AccessUpdatedEvent;
+import entropydata.sdk.client.model.DataContract;
+import entropydata.sdk.client.model.DataContractCreatedEvent;
+import entropydata.sdk.client.model.DataContractDeletedEvent;
+import entropydata.sdk.client.model.DataContractUpdatedEvent;
+import entropydata.sdk.client.model.DataProduct;
+import entropydata.sdk.client.model.DataProductCreatedEvent;
+import entropydata.sdk.client.model.DataProductDeletedEvent;
+import entropydata.sdk.client.model.DataProductOutputPortsInner;
+import entropydata.sdk.client.model.DataProductUpdatedEvent;
+import entropydata.sdk.client.model.OutputPortCreatedEvent;
+import entropydata.sdk.client.model.OutputPortDeletedEvent;
+import entropydata.sdk.client.model.OutputPortUpdatedEvent;
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory replica of the data products, data contracts, and access resources, for connectors that look them up on
+ * nearly every event.
+ * <p>
+ * The replica is seeded once with the paged list endpoints, and then kept current by the events of an EntropyDataEventListener:
+ * Created and Updated events fetch the current state of the entity, Deleted events remove it.
+ * As every event fetches the current state, events that are processed again after a restart are harmless.
+ * Lookups by id, team, and output port are served from memory.
+ *
+ * <pre>{@code
+ * var replica = new EntropyDataReplica(client);
+ * replica.seed();
+ * replica.attach(eventListener);
+ * eventListener.start();
+ * }</pre>
+ * <p>
+ * The returned objects are shared and must not be modified.
+ */
+public class EntropyDataReplica implements EntropyDataEventHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataReplica.class);
+
+  private final EntropyDataClient client;
+  private EntropyDataEventListener listener;
+
+  private final Index<DataProduct> dataProducts = new Index<>(DataProduct::getId, Map.of(
+      "team", dataProduct -> dataProduct.getInfo() != null ? Stream.ofNullable(dataProduct.getInfo().getOwner()).toList() : List.of(),
+      "outputPort", dataProduct -> dataProduct.getOutputPorts() == null ? List.of()
+          : dataProduct.getOutputPorts().stream().map(DataProductOutputPortsInner::getId).filter(Objects::nonNull)
+              .map(outputPortId -> outputPortKey(dataProduct.getId(), outputPortId)).toList()));
+  private final Index<DataContract> dataContracts = new Index<>(DataContract::getId, Map.of(
+      "team", dataContract -> dataContract.getTeam() != null ? Stream.ofNullable(dataContract.getTeam().getId()).toList() : List.of()));
+  private final Index<Access> access = new Index<>(Access::getId, Map.of(
+      "team", accessItem -> Stream.of(
+              accessItem.getProvider() != null ? accessItem.getProvider().getTeamId() : null,
+              accessItem.getConsumer() != null ? accessItem.getConsumer().getTeamId() : null)
+          .filter(Objects::nonNull).distinct().toList(),
+      "outputPort", accessItem -> accessItem.getProvider() != null && accessItem.getProvider().getOutputPortId() != null
+          ? List.of(outputPortKey(accessItem.getProvider().getDataProductId(), accessItem.getProvider().getOutputPortId()))
+          : List.of()));
+
+  public EntropyDataReplica(EntropyDataClient client) {
+    this.client = Objects.requireNonNull(client, "client must not be null");
+  }
+
+  /**
+   * Loads all data products, data contracts, and access resources with the paged list endpoints, replacing the current content.
+   */
+  public void seed() {
+    log.info("Seeding replica");
+    try (var stream = client.streamDataProducts()) {
+      dataProducts.replaceAll(stream);
+    }
+    try (var stream = client.streamDataContracts()) {
+      dataContracts.replaceAll(stream);
+    }
+    try (var stream = client.streamAccess()) {
+      access.replaceAll(stream);
+    }
+    log.info("Seeded replica with {} data products, {} data contracts, and {} access resources",
+        dataProducts.size(), dataContracts.size(), access.size());
+  }
+
+  /**
+   * Registers the replica as event handler of the listener, so that it is kept current by the events feed.
+   */
+  public void attach(EntropyDataEventListener listener) {
+    this.listener = Objects.requireNonNull(listener, "listener must not be null");
+    listener.addEventHandler(this);
+  }
+
+  /**
+   * The read position of the replica: all events up to and including this event id have been applied.
+   */
+  @Nullable
+  public String getLastEventId() {
+    return listener != null ? listener.getLastEventId() : null;
+  }
+
+  public Optional<DataProduct> getDataProduct(String id) {
+    return dataProducts.get(id);
+  }
+
+  public List<DataProduct> getDataProductsByTeam(String teamId) {
+    return dataProducts.getBy("team", teamId);
+  }
+
+  /**
+   * The data product, if it contains the output port. Output port ids are only unique within a data product.
+   */
+  public Optional<DataProduct> getDataProductByOutputPort(String dataProductId, String outputPortId) {
+    return dataProducts.getBy("outputPort", outputPortKey(dataProductId, outputPortId)).stream().findFirst();
+  }
+
+  public Optional<DataContract> getDataContract(String id) {
+    return dataContracts.get(id);
+  }
+
+  public List<DataContract> getDataContractsByTeam(String teamId) {
+    return dataContracts.getBy("team", teamId);
+  }
+
+  public Optional<Access> getAccess(String id) {
+    return access.get(id);
+  }
+
+  /**
+   * The access resources where the team is the provider or the consumer.
+   */
+  public List<Access> getAccessByTeam(String teamId) {
+    return access.getBy("team", teamId);
+  }
+
+  /**
+   * The access resources for an output port of a provider data product.
+   */
+  public List<Access> getAccessByOutputPort(String dataProductId, String outputPortId) {
+    return access.getBy("outputPort", outputPortKey(dataProductId, outputPortId));
+  }
+
+  @Override
+  public void onDataProductCreatedEvent(DataProductCreatedEvent event) {
+    refreshDataProduct(event.getId());
+  }
+
+  @Override
+  public void onDataProductUpdatedEvent(DataProductUpdatedEvent event) {
+    refreshDataProduct(event.getId());
+  }
+
+  @Override
+  public void onDataProductDeletedEvent(DataProductDeletedEvent event) {
+    dataProducts.remove(event.getId());
+  }
+
+  @Override
+  public void onOutputPortCreatedEvent(OutputPortCreatedEvent event) {
+    refreshDataProduct(event.getId());
+  }
+
+  @Override
+  public void onOutputPortUpdatedEvent(OutputPortUpdatedEvent event) {
+    refreshDataProduct(event.getId());
+  }
+
+  @Override
+  public void onOutputPortDeletedEvent(OutputPortDeletedEvent event) {
+    refreshDataProduct(event.getId());
+  }
+
+  @Override
+  public void onDataContractCreatedEvent(DataContractCreatedEvent event) {
+    refresh(dataContracts, event.getId(), () -> client.getDataContractsApi().getDataContract(event.getId()));
+  }
+
+  @Override
+  public void onDataContractUpdatedEvent(DataContractUpdatedEvent event) {
+    refresh(dataContracts, event.getId(), () -> client.getDataContractsApi().getDataContract(event.getId()));
+  }
+
+  @Override
+  public void onDataContractDeletedEvent(DataContractDeletedEvent event) {
+    dataContracts.remove(event.getId());
+  }
+
+  @Override
+  public void onAccessCreatedEvent(AccessCreatedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessUpdatedEvent(AccessUpdatedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessRequestedEvent(AccessRequestedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessApprovedEvent(AccessApprovedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessRejectedEvent(AccessRejectedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessActivatedEvent(AccessActivatedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessDeactivatedEvent(AccessDeactivatedEvent event) {
+    refreshAccess(event.getId());
+  }
+
+  @Override
+  public void onAccessDeletedEvent(AccessDeletedEvent event) {
+    access.remove(event.getId());
+  }
+
+  private void refreshAccess(String id) {
+    refresh(access, id, () -> client.getAccessApi().getAccess(id));
+  }
+
+  /**
+   * Output ports are part of the data product, so output port events, which carry the id of the data product, refresh it.
+   */
+  private void refreshDataProduct(String dataProductId) {
+    refresh(dataProducts, dataProductId, () -> client.getDataProduct(dataProductId));
+  }
+
+  private static <T> void refresh(Index<T> index, String id, Supplier<T> fetch) {
+    if (id == null) {
+      return;
+    }
+    try {
+      index.put(fetch.get());
+    } catch (ApiException e) {
+      if (e.getCode() == 404) {
+        index.remove(id);
+        return;
+      }
+      throw e;
+    }
+  }
+
+  private static String outputPortKey(String dataProductId, String outputPortId) {
+    return dataProductId + "/" + outputPortId;
+  }
+
+  /**
+   * Entities by id, with secondary indexes that map a key to the ids of the entities.
+   */
+  private static class Index<T> {
+
+    private final Function<T, String> idFunction;
+    private final Map<String, Function<T, Collection<String>>> keyFunctions;
+    private final ConcurrentHashMap<String, T> byId = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentHashMap<String, Set<String>>> secondaryIndexes = new HashMap<>();
+
+    Index(Function<T, String> idFunction, Map<String, Function<T, Collection<String>>> keyFunctions) {
+      this.idFunction = idFunction;
+      this.keyFunctions = keyFunctions;
+      keyFunctions.keySet().forEach(name -> secondaryIndexes.put(name, new ConcurrentHashMap<>()));
+    }
+
+    Optional<T> get(String id) {
+      return Optional.ofNullable(byId.get(id));
+    }
+
+    List<T> getBy(String indexName, String key) {
+      var ids = secondaryIndexes.get(indexName).get(key);
+      if (ids == null) {
+        return List.of();
+      }
+      var result = new ArrayList<T>(ids.size());
+      for (var id : ids) {
+        var entity = byId.get(id);
+        if (entity != null) {
+          result.add(entity);
+        }
+      }
+      return result;
+    }
+
+    int size() {
+      return byId.size();
+    }
+
+    synchronized void put(T entity) {
+      var id = idFunction.apply(entity);
+      if (id == null) {
+        return;
+      }
+      unindex(byId.put(id, entity));
+      for (var keyFunction : keyFunctions.entrySet()) {
+        for (var key : keyFunction.getValue().apply(entity)) {
+          secondaryIndexes.get(keyFunction.getKey()).computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+      }
+    }
+
+    synchronized void remove(String id) {
+      if (id != null) {
+        unindex(byId.remove(id));
+      }
+    }
+
+    /**
+     * Puts all entities and removes the others, while the index stays readable.
+     */
+    void replaceAll(Stream<T> entities) {
+      var ids = new HashSet<String>();
+      entities.forEach(entity -> {
+        put(entity);
+        ids.add(idFunction.apply(entity));
+      });
+      for (var id : List.copyOf(byId.keySet())) {
+        if (!ids.contains(id)) {
+          remove(id);
+        }
+      }
+    }
+
+    private void unindex(T entity) {
+      if (entity == null) {
+        return;
+      }
+      var id = idFunction.apply(entity);
+      for (var keyFunction : keyFunctions.entrySet()) {
+        var index = secondaryIndexes.get(keyFunction.getKey());
+        for (var key : keyFunction.getValue().apply(entity)) {
+          index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+          });
+        }
+      }
+    }
+  }
+
+}
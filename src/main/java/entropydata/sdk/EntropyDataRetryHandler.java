@@ -0,0 +1,331 @@
+package entropydata.sdk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.net.ssl.SSLException;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rate limits, retries, and short-circuits all requests of an EntropyDataHttpTransport.
+ * <p>
+ * Requests pass a token bucket. When the server responds with 429 Too Many Requests, the rate is halved and all
+ * requests wait for the Retry-After time; the rate recovers slowly with every successful response.
+ * <p>
+ * Idempotent requests (GET, HEAD, OPTIONS, PUT, DELETE) are retried on I/O errors and on 429, 502, 503, and 504
+ * with exponential backoff and full jitter. Other requests are only retried if they have not reached the server,
+ * i.e., on 429 and on connection failures.
+ * <p>
+ * After a number of consecutive failures, the circuit breaker opens and requests fail fast for the open duration.
+ * Then a single trial request is let through, which closes the circuit on success.
+ */
+public class EntropyDataRetryHandler implements ExecChainHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataRetryHandler.class);
+
+  private static final Set<String> idempotentMethods = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+  private static final Set<Integer> retryableStatusCodes = Set.of(429, 502, 503, 504);
+
+  public enum CircuitState {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private int maxAttempts = 5;
+  private Duration initialBackoff = Duration.ofMillis(200);
+  private Duration maxBackoff = Duration.ofSeconds(30);
+  private double maxRequestsPerSecond = 50;
+  private int failureThreshold = 10;
+  private Duration openDuration = Duration.ofSeconds(30);
+
+  // token bucket, guarded by this
+  private double rate = maxRequestsPerSecond;
+  private double tokens = maxRequestsPerSecond;
+  private long lastRefill = System.nanoTime();
+  private long pausedUntil = 0; // nanoTime, set by Retry-After
+
+  // circuit breaker, guarded by this
+  private CircuitState circuitState = CircuitState.CLOSED;
+  private int consecutiveFailures = 0;
+  private long openedAt = 0;
+  private boolean trialInFlight = false;
+
+  @Override
+  public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+      throws IOException, HttpException {
+    var method = request.getMethod().toUpperCase(Locale.ROOT);
+    boolean idempotent = idempotentMethods.contains(method);
+    boolean repeatable = request.getEntity() == null || request.getEntity().isRepeatable();
+
+    for (int attempt = 1; ; attempt++) {
+      boolean trial = acquirePermission(request);
+      try {
+        acquireToken();
+        var attemptRequest = attempt == 1 ? request : ClassicRequestBuilder.copy(scope.originalRequest).build();
+
+        ClassicHttpResponse response;
+        try {
+          response = chain.proceed(attemptRequest, scope);
+        } catch (IOException e) {
+          onFailure();
+          if (!isRetryable(e, idempotent) || !repeatable || attempt >= maxAttempts) {
+            throw e;
+          }
+          var backoff = backoff(attempt);
+          log.warn("{} {} failed with {}, retrying in {} (attempt {} of {})", method, request.getRequestUri(), e.toString(), backoff,
+              attempt, maxAttempts);
+          sleep(backoff);
+          continue;
+        }
+
+        int status = response.getCode();
+        if (status == 429) {
+          onRateLimited(response);
+        } else if (status >= 500) {
+          onFailure();
+        } else {
+          onSuccess();
+        }
+
+        if (!retryableStatusCodes.contains(status) || !(idempotent || status == 429) || !repeatable || attempt >= maxAttempts) {
+          return response;
+        }
+        var retryAfter = retryAfter(response);
+        var backoff = retryAfter != null ? retryAfter : backoff(attempt);
+        log.warn("{} {} responded with {}, retrying in {} (attempt {} of {})", method, request.getRequestUri(), status, backoff, attempt,
+            maxAttempts);
+        EntityUtils.consume(response.getEntity());
+        response.close();
+        sleep(backoff);
+      } finally {
+        if (trial) {
+          // the trial has ended, also if it has been interrupted or has failed with an exception other than an I/O error
+          endTrial();
+        }
+      }
+    }
+  }
+
+  private static boolean isRetryable(IOException e, boolean idempotent) {
+    if (e instanceof UnknownHostException || e instanceof SSLException
+        || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException))) {
+      return false;
+    }
+    // the request has not reached the server, so it is safe to retry any method
+    boolean notSent = e instanceof ConnectException || e instanceof NoRouteToHostException;
+    return idempotent || notSent;
+  }
+
+  /**
+   * Full jitter: a random backoff between zero and the exponentially growing upper bound.
+   */
+  private Duration backoff(int attempt) {
+    long upperBound = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 30));
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(upperBound + 1));
+  }
+
+  /**
+   * The Retry-After time of the response, limited to the maximum backoff, or null if the header is absent.
+   */
+  private Duration retryAfter(ClassicHttpResponse response) {
+    Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+    if (header == null) {
+      return null;
+    }
+    var value = header.getValue().trim();
+    Duration duration;
+    try {
+      duration = Duration.ofSeconds(Long.parseLong(value));
+    } catch (NumberFormatException e) {
+      Instant date = DateUtils.parseStandardDate(value);
+      if (date == null) {
+        return null;
+      }
+      duration = Duration.between(Instant.now(), date);
+    }
+    if (duration.isNegative()) {
+      return Duration.ZERO;
+    }
+    return duration.compareTo(maxBackoff) > 0 ? maxBackoff : duration;
+  }
+
+  /**
+   * Throws if the circuit breaker rejects the request.
+   *
+   * @return true if the request is the trial request of a half-open circuit breaker
+   */
+  private boolean acquirePermission(ClassicHttpRequest request) throws IOException {
+    synchronized (this) {
+      if (circuitState == CircuitState.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+        circuitState = CircuitState.HALF_OPEN;
+      }
+      if (circuitState == CircuitState.OPEN || (circuitState == CircuitState.HALF_OPEN && trialInFlight)) {
+        throw new IOException("Circuit breaker is open after " + consecutiveFailures + " consecutive failures, rejecting "
+            + request.getMethod() + " " + request.getRequestUri());
+      }
+      if (circuitState == CircuitState.HALF_OPEN) {
+        trialInFlight = true;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private synchronized void endTrial() {
+    trialInFlight = false;
+  }
+
+  private void acquireToken() throws InterruptedIOException {
+    long waitNanos;
+    synchronized (this) {
+      long now = System.nanoTime();
+      tokens = Math.min(maxRequestsPerSecond, tokens + (now - lastRefill) / 1e9 * rate);
+      lastRefill = now;
+      tokens -= 1; // may become negative, the caller then waits until its token has been refilled
+      waitNanos = Math.max(pausedUntil - now, tokens < 0 ? (long) (-tokens / rate * 1e9) : 0);
+    }
+    if (waitNanos > 0) {
+      sleep(Duration.ofNanos(waitNanos));
+    }
+  }
+
+  private synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    trialInFlight = false;
+    if (circuitState != CircuitState.CLOSED) {
+      log.info("Circuit breaker closed");
+      circuitState = CircuitState.CLOSED;
+    }
+    // additive increase
+    rate = Math.min(maxRequestsPerSecond, rate + 0.1);
+  }
+
+  private synchronized void onRateLimited(ClassicHttpResponse response) {
+    trialInFlight = false;
+    // multiplicative decrease
+    rate = Math.max(1, rate / 2);
+    var retryAfter = retryAfter(response);
+    if (retryAfter != null) {
+      pausedUntil = Math.max(pausedUntil, System.nanoTime() + retryAfter.toNanos());
+    }
+    log.debug("Rate limited, reduced rate to {} requests per second", rate);
+  }
+
+  private synchronized void onFailure() {
+    trialInFlight = false;
+    consecutiveFailures++;
+    if (circuitState == CircuitState.HALF_OPEN || (circuitState == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+      log.warn("Circuit breaker opened for {} after {} consecutive failures", openDuration, consecutiveFailures);
+      circuitState = CircuitState.OPEN;
+      openedAt = System.nanoTime();
+    }
+  }
+
+  private static void sleep(Duration duration) throws InterruptedIOException {
+    try {
+      Thread.sleep(duration.toMillis(), (int) (duration.toNanos() % 1_000_000));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to retry");
+    }
+  }
+
+  public synchronized CircuitState getCircuitState() {
+    return circuitState;
+  }
+
+  /**
+   * The current rate limit, which is reduced when the server responds with 429 Too Many Requests.
+   */
+  public synchronized double getCurrentRate() {
+    return rate;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * The maximum number of attempts per request, including the first one. Default: 5.
+   */
+  public void setMaxAttempts(int maxAttempts) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be positive");
+    }
+    this.maxAttempts = maxAttempts;
+  }
+
+  public Duration getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  public void setInitialBackoff(Duration initialBackoff) {
+    this.initialBackoff = Objects.requireNonNull(initialBackoff, "initialBackoff must not be null");
+  }
+
+  public Duration getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public void setMaxBackoff(Duration maxBackoff) {
+    this.maxBackoff = Objects.requireNonNull(maxBackoff, "maxBackoff must not be null");
+  }
+
+  public double getMaxRequestsPerSecond() {
+    return maxRequestsPerSecond;
+  }
+
+  /**
+   * The maximum request rate, which is also the burst size. Default: 50.
+   */
+  public synchronized void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+    if (maxRequestsPerSecond <= 0) {
+      throw new IllegalArgumentException("maxRequestsPerSecond must be positive");
+    }
+    this.maxRequestsPerSecond = maxRequestsPerSecond;
+    this.rate = Math.min(rate, maxRequestsPerSecond);
+    this.tokens = Math.min(tokens, maxRequestsPerSecond);
+  }
+
+  public int getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  /**
+   * The number of consecutive failed attempts that opens the circuit breaker. Default: 10.
+   */
+  public void setFailureThreshold(int failureThreshold) {
+    this.failureThreshold = failureThreshold;
+  }
+
+  public Duration getOpenDuration() {
+    return openDuration;
+  }
+
+  /**
+   * How long the circuit breaker rejects requests, before a trial request is let through. Default: 30 seconds.
+   */
+  public void setOpenDuration(Duration openDuration) {
+    this.openDuration = Objects.requireNonNull(openDuration, "openDuration must not be null");
+  }
+
+}
@@ -1,5 +1,6 @@
 package entropydata.sdk;
 
+import java.util.HashMap;
 import java.util.Map;
 
 public interface EntropyDataStateRepository {
@@ -7,4 +8,30 @@ public interface EntropyDataStateRepository {
   Map<String, Object> getState();
   void saveState(Map<String, Object> state);
 
+  /**
+   * Sets a single entry of the state and keeps all other entries.
+   * <p>
+   * The default implementation reads and saves the whole state, so it is not atomic. Repositories that are shared by several
+   * connectors, e.g., an event listener and an assets synchronizer, override it and {@link #removeState(String)} atomically.
+   */
+  default void putState(String key, Object value) {
+    var current = getState();
+    var state = current != null ? new HashMap<>(current) : new HashMap<String, Object>();
+    state.put(key, value);
+    saveState(state);
+  }
+
+  /**
+   * Removes a single entry of the state and keeps all other entries.
+   */
+  default void removeState(String key) {
+    var current = getState();
+    if (current == null || !current.containsKey(key)) {
+      return;
+    }
+    var state = new HashMap<>(current);
+    state.remove(key);
+    saveState(state);
+  }
+
 }
@@ -0,0 +1,193 @@
+package entropydata.sdk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A write-behind cache for any EntropyDataStateRepository, e.g., the EntropyDataStateRepositoryRemote.
+ * <p>
+ * The state is kept in memory after the first read. Saves are coalesced over the write delay, so that only the latest state is written,
+ * and saves that do not change the state are skipped. Failed writes are retried with exponential backoff.
+ * Pending writes are flushed on {@link #close()} and, for instances that have not been closed, when the JVM shuts down.
+ */
+public class EntropyDataStateRepositoryCached implements EntropyDataStateRepository, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataStateRepositoryCached.class);
+
+  private static final Duration maxBackoff = Duration.ofMinutes(5);
+
+  /**
+   * The instances that have not been closed, flushed by one shared shutdown hook. Weakly referenced, so that an instance that is
+   * never closed can still be garbage collected. An instance with a pending write is referenced by its scheduled flush.
+   */
+  private static final Set<EntropyDataStateRepositoryCached> openInstances =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+  static {
+    Runtime.getRuntime().addShutdownHook(
+        new Thread(EntropyDataStateRepositoryCached::flushAllOnShutdown, "entropy-data-state-shutdown-flush"));
+  }
+
+  private final EntropyDataStateRepository delegate;
+  private final Duration writeDelay;
+  private final ScheduledThreadPoolExecutor scheduler;
+  private final Object flushLock = new Object(); // writes to the delegate must not overtake each other
+
+  private Map<String, Object> state; // null until loaded
+  private long version = 0;
+  private long savedVersion = 0;
+  private ScheduledFuture<?> scheduledFlush;
+  private Duration backoff;
+
+  public EntropyDataStateRepositoryCached(EntropyDataStateRepository delegate) {
+    this(delegate, Duration.ofSeconds(5));
+  }
+
+  public EntropyDataStateRepositoryCached(EntropyDataStateRepository delegate, Duration writeDelay) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.writeDelay = Objects.requireNonNull(writeDelay, "writeDelay must not be null");
+    this.backoff = writeDelay;
+    this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      var thread = new Thread(runnable, "entropy-data-state-write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // the thread ends when idle, so that an instance that is never closed does not keep a thread
+    this.scheduler.setKeepAliveTime(1, TimeUnit.MINUTES);
+    this.scheduler.allowCoreThreadTimeOut(true);
+    openInstances.add(this);
+  }
+
+  @Override
+  public synchronized Map<String, Object> getState() {
+    if (state == null) {
+      var loadedState = delegate.getState();
+      state = loadedState != null ? new HashMap<>(loadedState) : new HashMap<>();
+    }
+    return new HashMap<>(state);
+  }
+
+  @Override
+  public void saveState(Map<String, Object> state) {
+    var newState = new HashMap<>(state);
+    updateState(current -> newState);
+  }
+
+  @Override
+  public void putState(String key, Object value) {
+    updateState(current -> {
+      current.put(key, value);
+      return current;
+    });
+  }
+
+  @Override
+  public void removeState(String key) {
+    updateState(current -> {
+      current.remove(key);
+      return current;
+    });
+  }
+
+  /**
+   * Applies the update to a copy of the current state under the lock, so that concurrent updates of different keys are not lost.
+   */
+  private void updateState(UnaryOperator<Map<String, Object>> update) {
+    synchronized (this) {
+      var newState = update.apply(getState());
+      if (newState.equals(this.state)) {
+        log.trace("State unchanged, skip saving");
+        return;
+      }
+      this.state = newState;
+      version++;
+      if (!scheduler.isShutdown()) {
+        if (scheduledFlush == null) {
+          scheduledFlush = scheduler.schedule(this::flushScheduled, writeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return;
+      }
+    }
+    // already closed, so write through
+    flush();
+  }
+
+  /**
+   * Writes the latest state to the delegate, if it has not been written yet.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      Map<String, Object> snapshot;
+      long snapshotVersion;
+      synchronized (this) {
+        if (version == savedVersion) {
+          return;
+        }
+        snapshot = new HashMap<>(state);
+        snapshotVersion = version;
+      }
+      delegate.saveState(snapshot);
+      synchronized (this) {
+        savedVersion = snapshotVersion;
+      }
+    }
+  }
+
+  private void flushScheduled() {
+    synchronized (this) {
+      scheduledFlush = null;
+    }
+    try {
+      flush();
+      synchronized (this) {
+        backoff = writeDelay;
+      }
+    } catch (Exception e) {
+      synchronized (this) {
+        backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+        log.warn("Failed to save state, retrying in {}", backoff, e);
+        if (scheduledFlush == null && !scheduler.isShutdown()) {
+          scheduledFlush = scheduler.schedule(this::flushScheduled, backoff.toMillis(), TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+  }
+
+  private static void flushAllOnShutdown() {
+    List<EntropyDataStateRepositoryCached> instances;
+    synchronized (openInstances) {
+      instances = new ArrayList<>(openInstances);
+    }
+    for (var instance : instances) {
+      try {
+        instance.flush();
+      } catch (Exception e) {
+        log.error("Failed to save state on shutdown", e);
+      }
+    }
+  }
+
+  /**
+   * Stops the write-behind scheduler and writes pending changes.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    openInstances.remove(this);
+    flush();
+  }
+
+}
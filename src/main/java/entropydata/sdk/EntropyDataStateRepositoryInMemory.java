@@ -1,28 +1,93 @@
 package entropydata.sdk;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
 
 /**
- * A simple in-memory implementation of EntropyDataStateRepository.
+ * A thread-safe in-memory implementation of EntropyDataStateRepository.
+ * <p>
+ * The state of each connector is stored as an immutable snapshot and updated with compare-and-set, so reads and writes never block.
+ * Use {@link #forConnector(String)} to serve several connectors from one shared store.
  */
 public class EntropyDataStateRepositoryInMemory implements EntropyDataStateRepository {
 
   private final String connectorId;
 
-  private final Map<String, Map<String, Object>> state = new HashMap<>(); // key: connectorId, value: state
+  private final ConcurrentMap<String, Map<String, Object>> states; // key: connectorId, value: immutable state
 
   public EntropyDataStateRepositoryInMemory(String connectorId) {
-    this.connectorId = connectorId;
+    this(connectorId, new ConcurrentHashMap<>());
   }
 
+  private EntropyDataStateRepositoryInMemory(String connectorId, ConcurrentMap<String, Map<String, Object>> states) {
+    this.connectorId = Objects.requireNonNull(connectorId, "connectorId must not be null");
+    this.states = states;
+  }
+
+  /**
+   * Returns a repository for another connector that shares the same store.
+   */
+  public EntropyDataStateRepositoryInMemory forConnector(String connectorId) {
+    return new EntropyDataStateRepositoryInMemory(connectorId, states);
+  }
+
+  /**
+   * Returns an immutable snapshot of the state.
+   */
   @Override
   public Map<String, Object> getState() {
-    return this.state.getOrDefault(connectorId, new HashMap<>());
+    return states.getOrDefault(connectorId, Map.of());
   }
 
+  /**
+   * Replaces the state with a snapshot of the given state. A null state clears the state.
+   */
   @Override
   public void saveState(Map<String, Object> state) {
-    this.state.put(connectorId, state);
+    if (state == null) {
+      states.remove(connectorId);
+    } else {
+      states.put(connectorId, snapshot(state));
+    }
+  }
+
+  @Override
+  public void putState(String key, Object value) {
+    updateState(state -> {
+      var updated = new HashMap<>(state);
+      updated.put(key, value);
+      return updated;
+    });
+  }
+
+  @Override
+  public void removeState(String key) {
+    updateState(state -> {
+      var updated = new HashMap<>(state);
+      updated.remove(key);
+      return updated;
+    });
+  }
+
+  /**
+   * Atomically replaces the state with the result of the update function. The function may be called multiple times on contention.
+   */
+  public void updateState(UnaryOperator<Map<String, Object>> update) {
+    while (true) {
+      var current = states.get(connectorId);
+      var updated = snapshot(update.apply(current != null ? current : Map.of()));
+      if (current == null ? states.putIfAbsent(connectorId, updated) == null : states.replace(connectorId, current, updated)) {
+        return;
+      }
+    }
+  }
+
+  private static Map<String, Object> snapshot(Map<String, Object> state) {
+    return Collections.unmodifiableMap(new HashMap<>(state));
   }
 }
@@ -0,0 +1,246 @@
+package entropydata.sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the state in a local file, e.g., on a persistent volume of a Kubernetes pod.
+ * <p>
+ * Every save appends a snapshot of the state to a memory-mapped log, so a save is a memory copy without a system call.
+ * Each record is {@code [length][crc32][json]}. On startup, the log is scanned and the last record with a valid checksum is used,
+ * so a crash during a write loses at most that write. When the log is full, it is compacted to the latest record.
+ * <p>
+ * Without fsync, saved state survives a crash of the process, but not of the machine.
+ * Use the {@link SyncPolicy} to trade durability against latency.
+ */
+public class EntropyDataStateRepositoryLocalFile implements EntropyDataStateRepository, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataStateRepositoryLocalFile.class);
+
+  private static final int headerSize = 8; // length + crc32
+  private static final int minCapacity = 1024 * 1024;
+
+  public enum SyncPolicy {
+    /** Forces every save to the storage device before returning. */
+    EVERY_WRITE,
+    /** Forces saves to the storage device at most once per sync interval. */
+    PERIODIC,
+    /** Leaves writing dirty pages to the operating system. */
+    OS
+  }
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final Path file;
+  private final SyncPolicy syncPolicy;
+  private Duration syncInterval = Duration.ofSeconds(1);
+
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private Map<String, Object> state = new HashMap<>();
+  private int records = 0;
+  private long lastSync = System.nanoTime();
+
+  public EntropyDataStateRepositoryLocalFile(String connectorId, Path directory) {
+    this(connectorId, directory, SyncPolicy.PERIODIC);
+  }
+
+  public EntropyDataStateRepositoryLocalFile(String connectorId, Path directory, SyncPolicy syncPolicy) {
+    Objects.requireNonNull(connectorId, "connectorId must not be null");
+    this.file = Objects.requireNonNull(directory, "directory must not be null").resolve(connectorId + ".state");
+    this.syncPolicy = Objects.requireNonNull(syncPolicy, "syncPolicy must not be null");
+    try {
+      Files.createDirectories(directory);
+      open(file);
+      recover();
+      if (records > 1) {
+        compact();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open state file " + file, e);
+    }
+  }
+
+  @Override
+  public synchronized Map<String, Object> getState() {
+    return new HashMap<>(state);
+  }
+
+  @Override
+  public synchronized void saveState(Map<String, Object> state) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(state);
+      if (buffer.remaining() < headerSize + json.length + 4) {
+        compact();
+      }
+      if (buffer.remaining() < headerSize + json.length + 4) {
+        grow(headerSize + json.length + 4);
+      }
+      append(buffer, json);
+      records++;
+      this.state = new HashMap<>(state);
+      sync(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write state file " + file, e);
+    }
+  }
+
+  @Override
+  public synchronized void putState(String key, Object value) {
+    var newState = new HashMap<>(state);
+    newState.put(key, value);
+    saveState(newState);
+  }
+
+  @Override
+  public synchronized void removeState(String key) {
+    if (!state.containsKey(key)) {
+      return;
+    }
+    var newState = new HashMap<>(state);
+    newState.remove(key);
+    saveState(newState);
+  }
+
+  public Duration getSyncInterval() {
+    return syncInterval;
+  }
+
+  public void setSyncInterval(Duration syncInterval) {
+    this.syncInterval = Objects.requireNonNull(syncInterval, "syncInterval must not be null");
+  }
+
+  /**
+   * Forces all saves to the storage device.
+   */
+  public synchronized void sync() {
+    sync(true);
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      buffer.force();
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close state file " + file, e);
+    }
+  }
+
+  private void sync(boolean force) {
+    if (force || syncPolicy == SyncPolicy.EVERY_WRITE
+        || (syncPolicy == SyncPolicy.PERIODIC && System.nanoTime() - lastSync >= syncInterval.toNanos())) {
+      buffer.force();
+      lastSync = System.nanoTime();
+    }
+  }
+
+  private static void append(MappedByteBuffer buffer, byte[] json) {
+    var crc = new CRC32();
+    crc.update(json);
+    int start = buffer.position();
+    buffer.position(start + headerSize);
+    buffer.put(json);
+    // terminate the log, so that leftovers of a torn write are never read as a record
+    buffer.putInt(buffer.position(), 0);
+    // write the header last, so that a partially written record is detected by its length or checksum
+    buffer.putInt(start + 4, (int) crc.getValue());
+    buffer.putInt(start, json.length);
+  }
+
+  private void recover() throws IOException {
+    int position = 0;
+    while (position + headerSize <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (length <= 0 || (long) position + headerSize + length > buffer.capacity()) {
+        break;
+      }
+      int checksum = buffer.getInt(position + 4);
+      byte[] json = new byte[length];
+      buffer.get(position + headerSize, json);
+      var crc = new CRC32();
+      crc.update(json);
+      if ((int) crc.getValue() != checksum) {
+        log.warn("Ignoring corrupt record at position {} in state file {}", position, file);
+        break;
+      }
+      state = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+      records++;
+      position += headerSize + length;
+    }
+    buffer.position(position);
+    log.info("Recovered state from {} records in {}", records, file);
+  }
+
+  /**
+   * Writes the current state as the only record to a new log file and atomically replaces the current log.
+   * The current log stays in use until the new log has been written and moved in place, so a failed compaction loses nothing.
+   */
+  private void compact() throws IOException {
+    log.debug("Compacting state file {} with {} records", file, records);
+    byte[] json = objectMapper.writeValueAsBytes(state);
+    Path compactFile = file.resolveSibling(file.getFileName() + ".compact");
+    Files.deleteIfExists(compactFile);
+    int capacity = Math.max(buffer.capacity(), 2 * (headerSize + json.length + 4));
+    int position;
+    try (var compactChannel = FileChannel.open(compactFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      var compactBuffer = compactChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+      append(compactBuffer, json);
+      compactBuffer.force();
+      position = compactBuffer.position();
+    }
+    Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    var compactedChannel = channel;
+    open(file, capacity);
+    compactedChannel.close();
+    buffer.position(position);
+    records = 1;
+  }
+
+  private void grow(int recordSize) throws IOException {
+    int position = buffer.position();
+    int capacity = buffer.capacity();
+    while (capacity - position < recordSize) {
+      capacity *= 2;
+    }
+    var grownChannel = channel;
+    open(file, capacity);
+    grownChannel.close();
+    buffer.position(position);
+  }
+
+  private void open(Path path) throws IOException {
+    open(path, minCapacity);
+  }
+
+  /**
+   * Maps the file and switches to it only once it has been mapped.
+   */
+  private void open(Path path, int capacity) throws IOException {
+    var newChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      int size = (int) Math.max(newChannel.size(), capacity);
+      buffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    } catch (IOException e) {
+      newChannel.close();
+      throw e;
+    }
+    channel = newChannel;
+  }
+
+}
@@ -3,6 +3,7 @@ package entropydata.sdk;
 import entropydata.sdk.client.ApiException;
 import entropydata.sdk.client.model.Connector;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,9 +29,18 @@ public class EntropyDataStateRepositoryRemote implements EntropyDataStateReposit
 
   @Override
   public void saveState( Map<String, Object> state) {
+    updateConnector(connector -> connector.setState(state));
+  }
+
+  @Override
+  public void putState(String key, Object value) {
+    updateConnector(connector -> connector.putStateItem(key, value));
+  }
+
+  private void updateConnector(Consumer<Connector> update) {
     try {
       Connector connector = client.getConnectorsApi().getConnector(connectorId);
-      connector.setState(state);
+      update.accept(connector);
       client.getConnectorsApi().putConnector(connectorId, connector);
     } catch (ApiException e) {
       if (e.getCode() == 404) {
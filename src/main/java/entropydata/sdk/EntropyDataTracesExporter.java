@@ -0,0 +1,232 @@
+package entropydata.sdk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import entropydata.sdk.client.model.OtelTracesRequest;
+import entropydata.sdk.client.model.OtelTracesRequestResourceSpansInner;
+import entropydata.sdk.client.model.OtelTracesRequestResourceSpansInnerResource;
+import entropydata.sdk.client.model.OtelTracesRequestResourceSpansInnerScopeSpansInner;
+import entropydata.sdk.client.model.OtelTracesRequestResourceSpansInnerScopeSpansInnerScope;
+import entropydata.sdk.client.model.OtlpSpan;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports usage spans to Entropy Data in batches with {@code POST /api/v1/traces}, instead of one request per span.
+ * <p>
+ * {@link #export} never blocks: spans are added to a bounded, lock-free queue, and are dropped and counted when the queue is full.
+ * A background thread sends a batch when the batch size is reached, and all queued spans every flush interval.
+ * Batches are sent as gzip-compressed OTLP/JSON. On {@link #close()} and on JVM shutdown, all queued spans are sent.
+ *
+ * <pre>{@code
+ * var exporter = new EntropyDataTracesExporter(client);
+ * exporter.export(resource, scope, span); // for every query in the query log
+ * }</pre>
+ */
+public class EntropyDataTracesExporter implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EntropyDataTracesExporter.class);
+
+  private record QueuedSpan(OtelTracesRequestResourceSpansInnerResource resource, OtelTracesRequestResourceSpansInnerScopeSpansInnerScope scope,
+                            OtlpSpan span) {
+  }
+
+  private final EntropyDataClient client;
+  private final ObjectMapper objectMapper;
+  private final int capacity;
+  private final int batchSize;
+
+  private final ConcurrentLinkedQueue<QueuedSpan> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queueSize = new AtomicInteger();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final ScheduledExecutorService scheduler;
+  private final Thread shutdownHook;
+  private final Object sendLock = new Object(); // batches are sent one after another
+  private volatile boolean closed = false;
+
+  private final AtomicLong exportedSpans = new AtomicLong();
+  private final AtomicLong droppedSpans = new AtomicLong();
+  private final AtomicLong failedSpans = new AtomicLong();
+
+  public EntropyDataTracesExporter(EntropyDataClient client) {
+    this(client, 65_536, 1000, Duration.ofSeconds(5));
+  }
+
+  /**
+   * @param capacity the maximum number of queued spans, further spans are dropped
+   * @param batchSize the maximum number of spans per request, a batch is sent as soon as this number of spans is queued
+   * @param flushInterval the maximum time a span is queued
+   */
+  public EntropyDataTracesExporter(EntropyDataClient client, int capacity, int batchSize, Duration flushInterval) {
+    this.client = Objects.requireNonNull(client, "client must not be null");
+    if (capacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("capacity and batchSize must be positive");
+    }
+    Objects.requireNonNull(flushInterval, "flushInterval must not be null");
+    this.objectMapper = client.getApiClient().getObjectMapper();
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "entropy-data-traces-exporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    this.shutdownHook = new Thread(this::flushQuietly, "entropy-data-traces-shutdown-flush");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  /**
+   * Queues a span for export. Returns false if the span has been dropped, because the queue is full or the exporter is closed.
+   */
+  public boolean export(OtelTracesRequestResourceSpansInnerResource resource, OtelTracesRequestResourceSpansInnerScopeSpansInnerScope scope,
+      OtlpSpan span) {
+    Objects.requireNonNull(span, "span must not be null");
+    if (closed) {
+      droppedSpans.incrementAndGet();
+      return false;
+    }
+    if (queueSize.incrementAndGet() > capacity) {
+      queueSize.decrementAndGet();
+      droppedSpans.incrementAndGet();
+      return false;
+    }
+    queue.offer(new QueuedSpan(resource, scope, span));
+    if (queueSize.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+      try {
+        scheduler.execute(this::flushQuietly);
+      } catch (RejectedExecutionException e) {
+        // closing, close() sends the remaining spans
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sends all queued spans and waits until they have been sent.
+   */
+  public void flush() {
+    synchronized (sendLock) {
+      flushScheduled.set(false);
+      while (!queue.isEmpty()) {
+        sendBatch();
+      }
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Failed to export spans", e);
+    }
+  }
+
+  private void sendBatch() {
+    Map<OtelTracesRequestResourceSpansInnerResource, Map<OtelTracesRequestResourceSpansInnerScopeSpansInnerScope, List<OtlpSpan>>> grouped =
+        new LinkedHashMap<>();
+    int count = 0;
+    QueuedSpan queuedSpan;
+    while (count < batchSize && (queuedSpan = queue.poll()) != null) {
+      queueSize.decrementAndGet();
+      grouped.computeIfAbsent(queuedSpan.resource(), resource -> new LinkedHashMap<>())
+          .computeIfAbsent(queuedSpan.scope(), scope -> new ArrayList<>())
+          .add(queuedSpan.span());
+      count++;
+    }
+    if (count == 0) {
+      return;
+    }
+
+    var request = new OtelTracesRequest();
+    grouped.forEach((resource, scopes) -> {
+      var resourceSpans = new OtelTracesRequestResourceSpansInner().resource(resource);
+      scopes.forEach((scope, spans) -> resourceSpans.addScopeSpansItem(
+          new OtelTracesRequestResourceSpansInnerScopeSpansInner().scope(scope).spans(spans)));
+      request.addResourceSpansItem(resourceSpans);
+    });
+
+    try {
+      client.postGzippedJson("/api/v1/traces", gzip(request));
+      exportedSpans.addAndGet(count);
+      log.debug("Exported {} spans", count);
+    } catch (RuntimeException e) {
+      // a POST is only retried by an EntropyDataRetryHandler of the transport, and only if it has not reached the server,
+      // so the batch may not have been retried at all; it is dropped anyway to keep memory bounded
+      failedSpans.addAndGet(count);
+      log.warn("Failed to export {} spans, dropping them", count, e);
+    }
+  }
+
+  private byte[] gzip(OtelTracesRequest request) {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new GZIPOutputStream(bytes)) {
+      objectMapper.writeValue(out, request);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to serialize spans", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * The number of spans that have been sent successfully.
+   */
+  public long getExportedSpans() {
+    return exportedSpans.get();
+  }
+
+  /**
+   * The number of spans that have been dropped because the queue was full or the exporter was closed.
+   */
+  public long getDroppedSpans() {
+    return droppedSpans.get();
+  }
+
+  /**
+   * The number of spans that have been dropped because their batch could not be sent.
+   */
+  public long getFailedSpans() {
+    return failedSpans.get();
+  }
+
+  public int getQueueSize() {
+    return queueSize.get();
+  }
+
+  /**
+   * Stops accepting spans and sends all queued spans.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    scheduler.shutdown();
+    try {
+      scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // JVM is already shutting down, the shutdown hook flushes
+    }
+    flush();
+  }
+
+}
@@ -0,0 +1,65 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.Asset;
+import entropydata.sdk.client.model.AssetInfo;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataAssetFingerprintTests {
+
+  /**
+   * Known answers of MurmurHash3_x64_128 with seed 0, as computed by Guava's {@code Hashing.murmur3_128()}, for lengths below,
+   * at, and above one 16-byte block.
+   */
+  @Test
+  void testMurmur3KnownAnswers() {
+    assertThat(murmur3("")).isEqualTo("00000000000000000000000000000000");
+    assertThat(murmur3("a")).isEqualTo("897859f6655555855a890e51483ab5e6");
+    assertThat(murmur3("abc")).isEqualTo("6778ad3f3f3f96b4522dca264174a23b");
+    assertThat(murmur3("0123456789abcde")).isEqualTo("5123bfc0f6d52da6f04c547c0cf5cc4f");
+    assertThat(murmur3("0123456789abcdef")).isEqualTo("a7d14acf946de04bda08a7635c5bc387");
+    assertThat(murmur3("0123456789abcdef0")).isEqualTo("75c0a58587ae24ebca283131b368fb73");
+    assertThat(murmur3("0123456789abcdef0123456789abcde")).isEqualTo("00af4d7e97acfb9a5182fd7eda4cfe89");
+    assertThat(murmur3("The quick brown fox jumps over the lazy dog")).isEqualTo("6c1b07bc7bbc4be347939ac4a93c437a");
+  }
+
+  @Test
+  void testMurmur3IsIndependentOfWriteChunks() {
+    var bytes = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+    var hash = new EntropyDataAssetFingerprint.Murmur3Hash128();
+    int offset = 0;
+    for (int chunk = 0; offset < bytes.length; chunk++) {
+      int count = Math.min(chunk % 7, bytes.length - offset);
+      if (count == 1) {
+        hash.write(bytes[offset]);
+      } else {
+        hash.write(bytes, offset, count);
+      }
+      offset += count;
+    }
+    assertThat(hash.toHex()).isEqualTo("6c1b07bc7bbc4be347939ac4a93c437a");
+  }
+
+  @Test
+  void testEmptyFieldsDoNotChangeFingerprint() {
+    var asset = new Asset().id("orders").info(new AssetInfo().name("orders").type("table"));
+    var normalized = new Asset().id("orders").info(new AssetInfo().name("orders").type("table").description(""))
+        .properties(new HashMap<>())
+        .tags(new ArrayList<>())
+        .links(null);
+
+    assertThat(EntropyDataAssetFingerprint.of(normalized)).isEqualTo(EntropyDataAssetFingerprint.of(asset));
+    assertThat(EntropyDataAssetFingerprint.of(asset.tags(List.of("pii")))).isNotEqualTo(EntropyDataAssetFingerprint.of(normalized));
+  }
+
+  private static String murmur3(String value) {
+    var hash = new EntropyDataAssetFingerprint.Murmur3Hash128();
+    hash.write(value.getBytes(StandardCharsets.UTF_8), 0, value.length());
+    return hash.toHex();
+  }
+}
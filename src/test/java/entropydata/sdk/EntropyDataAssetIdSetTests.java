@@ -0,0 +1,33 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class EntropyDataAssetIdSetTests {
+
+  @Test
+  void testContainsAddedIds() {
+    var ids = new EntropyDataAssetIdSet();
+    for (int i = 0; i < 10_000; i++) {
+      ids.add("catalog.schema.table_" + i);
+    }
+
+    assertThat(ids.size()).isEqualTo(10_000);
+    assertThat(ids.contains("catalog.schema.table_0")).isTrue();
+    assertThat(ids.contains("catalog.schema.table_9999")).isTrue();
+    assertThat(ids.contains("catalog.schema.table_10000")).isFalse();
+  }
+
+  @Test
+  void testAddAfterContains() {
+    var ids = new EntropyDataAssetIdSet();
+    ids.add("b");
+    assertThat(ids.contains("a")).isFalse();
+
+    ids.add("a");
+    assertThat(ids.contains("a")).isTrue();
+    assertThat(ids.contains("b")).isTrue();
+  }
+
+}
@@ -0,0 +1,207 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import entropydata.sdk.client.ApiException;
+import entropydata.sdk.client.model.Asset;
+import entropydata.sdk.client.model.AssetInfo;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataAssetsSynchronizerTests {
+
+  private static final String remoteAssets = """
+      [
+        {"id": "snowflake-orders", "info": {"source": "snowflake", "type": "table", "name": "orders"}},
+        {"id": "snowflake-legacy", "info": {"source": "snowflake", "type": "table", "name": "legacy"}},
+        {"id": "databricks-customers", "info": {"source": "databricks", "type": "table", "name": "customers"}},
+        {"id": "manual-report", "info": {"type": "dashboard", "name": "report"}}
+      ]""";
+
+  @Test
+  void testDeleteMissingAssetsKeepsUnownedAssets() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/assets", request -> EntropyDataTestServer.json(remoteAssets));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      EntropyDataAssetsProvider provider = callback -> callback.onAssetUpdated(new Asset()
+          .id("snowflake-orders")
+          .info(new AssetInfo().source("snowflake").type("table").name("orders")));
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, provider);
+      synchronizer.setOwnedAssetsFilter(asset -> asset.getInfo() != null && "snowflake".equals(asset.getInfo().getSource()));
+      synchronizer.setDeleteMissingAssets(true);
+      synchronizer.setMaxDeletionRatio(1.0);
+
+      synchronizer.synchronizeAssets();
+
+      assertThat(server.getRequests("DELETE", "/api/assets/").stream().map(EntropyDataTestServer.Request::path).toList())
+          .containsExactly("/api/assets/snowflake-legacy");
+    }
+  }
+
+  @Test
+  void testDeleteMissingAssetsRequiresOwnedAssetsFilter() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> {
+      });
+
+      assertThatThrownBy(() -> synchronizer.setDeleteMissingAssets(true)).isInstanceOf(IllegalStateException.class);
+      assertThat(synchronizer.isDeleteMissingAssets()).isFalse();
+    }
+  }
+
+  @Test
+  void testSaveAssetDoesNotModifyProvidedAsset() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      var savedAsset = new AtomicReference<String>();
+      server.on("PUT", "/api/assets/orders", request -> {
+        savedAsset.set(request.body());
+        return EntropyDataTestServer.json("{}");
+      });
+      server.on("GET", "/api/assets/orders",
+          request -> savedAsset.get() != null ? EntropyDataTestServer.json(savedAsset.get()) : EntropyDataTestServer.status(404));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> {
+      });
+      synchronizer.setFingerprintProperty("fingerprint");
+      var asset = new Asset()
+          .id("orders")
+          .info(new AssetInfo().source("snowflake").type("table").name("orders"))
+          .custom(Map.of("owner", "sales"));
+
+      synchronizer.saveAsset(asset);
+      synchronizer.saveAsset(asset);
+
+      assertThat(asset.getCustom()).isEqualTo(Map.of("owner", "sales"));
+      assertThat(server.getRequests("PUT", "/api/assets/orders")).hasSize(1);
+      var custom = new ObjectMapper().readTree(savedAsset.get()).path("custom");
+      assertThat(custom.path("owner").asText()).isEqualTo("sales");
+      assertThat(custom.path("fingerprint").asText()).isEqualTo(EntropyDataAssetFingerprint.of(asset));
+    }
+  }
+
+  @Test
+  void testWritesAssetsConcurrentlyWithinConcurrency() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      var inFlight = new AtomicInteger();
+      var maxInFlight = new AtomicInteger();
+      for (int i = 0; i < 20; i++) {
+        server.on("PUT", "/api/assets/asset-" + i, request -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          Thread.sleep(50);
+          inFlight.decrementAndGet();
+          return EntropyDataTestServer.json("{}");
+        });
+      }
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> {
+        for (int i = 0; i < 20; i++) {
+          callback.onAssetUpdated(new Asset().id("asset-" + i).info(new AssetInfo().type("table").name("asset-" + i)));
+        }
+      });
+      synchronizer.setConcurrency(4);
+
+      synchronizer.synchronizeAssets();
+
+      assertThat(server.getRequests("PUT", "/api/assets/")).hasSize(20);
+      assertThat(maxInFlight.get()).isGreaterThan(1);
+      assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+  }
+
+  @Test
+  void testReportsFailedConcurrentWrite() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("PUT", "/api/assets/asset-3", request -> EntropyDataTestServer.status(500));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> {
+        for (int i = 0; i < 10; i++) {
+          callback.onAssetUpdated(new Asset().id("asset-" + i).info(new AssetInfo().type("table").name("asset-" + i)));
+        }
+      });
+      synchronizer.setConcurrency(4);
+
+      assertThatThrownBy(synchronizer::synchronizeAssets)
+          .isInstanceOf(ApiException.class)
+          .hasFieldOrPropertyWithValue("code", 500);
+    }
+  }
+
+  @Test
+  void testPrefetchDoesNotReloadValidAssetsIndex() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/assets", request -> EntropyDataTestServer.json(remoteAssets));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      EntropyDataAssetsProvider provider = callback -> callback.onAssetUpdated(new Asset()
+          .id("snowflake-orders")
+          .info(new AssetInfo().source("snowflake").type("table").name("orders")));
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, provider);
+      synchronizer.setAssetsIndex(new EntropyDataAssetsIndexInMemory());
+      synchronizer.setPrefetchRemoteAssets(true);
+
+      synchronizer.synchronizeAssets();
+      synchronizer.synchronizeAssets();
+
+      assertThat(server.getRequests("GET", "/api/assets").stream().filter(request -> request.path().equals("/api/assets")).toList())
+          .hasSize(1);
+      assertThat(server.getRequests("PUT", "/api/assets/")).isEmpty();
+    }
+  }
+
+  @Test
+  void testFailedIncrementalSynchronizationWithoutAssetsIndexStaysIncremental() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var highWaterMarks = new ArrayList<String>();
+      EntropyDataAssetsProviderIncremental provider = (highWaterMark, callback) -> {
+        highWaterMarks.add(highWaterMark);
+        if (highWaterMarks.size() == 2) {
+          throw new IllegalStateException("Failed to fetch assets");
+        }
+        return "hwm-" + highWaterMarks.size();
+      };
+      var stateRepository = new EntropyDataStateRepositoryInMemory("unittest");
+      stateRepository.putState("lastEventId", "1");
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, provider, stateRepository);
+
+      synchronizer.synchronizeAssets();
+      assertThatThrownBy(synchronizer::synchronizeAssets).isInstanceOf(IllegalStateException.class);
+      synchronizer.invalidateAssetsIndex();
+      synchronizer.synchronizeAssets();
+
+      assertThat(highWaterMarks).containsExactly(null, "hwm-1", "hwm-1");
+      assertThat(stateRepository.getState()).containsEntry("assetsHighWaterMark", "hwm-3");
+      assertThat(stateRepository.getState()).containsEntry("lastEventId", "1");
+      assertThat(stateRepository.getState().get("lastFullAssetsSynchronization")).isNotNull();
+    }
+  }
+
+  @Test
+  void testFailedSynchronizationWithAssetsIndexIsFull() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/assets", request -> EntropyDataTestServer.json("[]"));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var highWaterMarks = new ArrayList<String>();
+      EntropyDataAssetsProviderIncremental provider = (highWaterMark, callback) -> {
+        highWaterMarks.add(highWaterMark);
+        if (highWaterMarks.size() == 2) {
+          throw new IllegalStateException("Failed to fetch assets");
+        }
+        return "hwm-" + highWaterMarks.size();
+      };
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, provider, new EntropyDataStateRepositoryInMemory("unittest"));
+      synchronizer.setAssetsIndex(new EntropyDataAssetsIndexInMemory());
+
+      synchronizer.synchronizeAssets();
+      assertThatThrownBy(synchronizer::synchronizeAssets).isInstanceOf(IllegalStateException.class);
+      synchronizer.synchronizeAssets();
+
+      assertThat(highWaterMarks).containsExactly(null, "hwm-1", null);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.OutputPortUpdatedEvent;
+import entropydata.sdk.client.model.Team;
+import entropydata.sdk.client.model.TeamUpdatedEvent;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataClientCacheTests {
+
+  private EntropyDataTestServer server;
+  private EntropyDataClientCache cache;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new EntropyDataTestServer();
+    for (var id : new String[] {"sales", "marketing", "finance"}) {
+      server.on("GET", "/api/teams/" + id, request -> EntropyDataTestServer.json("{\"id\": \"" + id + "\", \"name\": \"" + id + "\"}"));
+    }
+    server.on("GET", "/api/dataproducts/orders", request -> EntropyDataTestServer.json("{\"id\": \"orders\"}"));
+    cache = new EntropyDataClientCache(new EntropyDataClient(server.getBaseUrl(), "APIKEY"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @Test
+  void testHitAndMiss() {
+    assertThat(cache.getTeam("sales").getName()).isEqualTo("sales");
+    assertThat(cache.getTeam("sales").getName()).isEqualTo("sales");
+
+    assertThat(requests("sales")).isEqualTo(1);
+    var stats = cache.getStats();
+    assertThat(stats.hitCount()).isEqualTo(1);
+    assertThat(stats.missCount()).isEqualTo(1);
+    assertThat(stats.size()).isEqualTo(1);
+  }
+
+  @Test
+  void testExpiresAfterTimeToLive() throws InterruptedException {
+    cache.setTimeToLive(Duration.ofMillis(50));
+    cache.getTeam("sales");
+    Thread.sleep(60);
+    cache.getTeam("sales");
+
+    assertThat(requests("sales")).isEqualTo(2);
+    assertThat(cache.getStats().evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsedEntry() {
+    cache.setMaximumSize(2);
+    cache.getTeam("sales");
+    cache.getTeam("marketing");
+    cache.getTeam("sales");
+    cache.getTeam("finance");
+
+    cache.getTeam("sales");
+    cache.getTeam("marketing");
+
+    assertThat(requests("sales")).isEqualTo(1);
+    assertThat(requests("marketing")).isEqualTo(2);
+    assertThat(cache.getStats().size()).isEqualTo(2);
+  }
+
+  @Test
+  void testEvictsByWeight() {
+    cache.setWeigher(value -> ((Team) value).getName().length());
+    cache.setMaximumWeight(15);
+    cache.getTeam("sales");
+    cache.getTeam("marketing");
+    assertThat(cache.getStats().weight()).isEqualTo(5 + 9);
+    cache.getTeam("finance");
+
+    assertThat(cache.getStats().size()).isEqualTo(1);
+    assertThat(cache.getStats().weight()).isEqualTo(7);
+    cache.getTeam("finance");
+    assertThat(requests("finance")).isEqualTo(1);
+  }
+
+  @Test
+  void testInvalidatesByEvents() {
+    cache.getTeam("sales");
+    cache.getDataProduct("orders");
+
+    cache.onTeamUpdatedEvent(new TeamUpdatedEvent().id("sales"));
+    cache.onOutputPortUpdatedEvent(new OutputPortUpdatedEvent().id("orders").outputPortId("snowflake"));
+    cache.getTeam("sales");
+    cache.getDataProduct("orders");
+
+    assertThat(requests("sales")).isEqualTo(2);
+    assertThat(server.getRequests("GET", "/api/dataproducts/orders")).hasSize(2);
+    assertThat(cache.getStats().invalidationCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testLoadDoesNotStoreValueInvalidatedMeanwhile() throws Exception {
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    server.on("GET", "/api/teams/sales", request -> {
+      loading.countDown();
+      release.await(10, TimeUnit.SECONDS);
+      return EntropyDataTestServer.json("{\"id\": \"sales\", \"name\": \"sales\"}");
+    });
+    var load = CompletableFuture.supplyAsync(() -> cache.getTeam("sales"));
+    assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+
+    cache.onTeamUpdatedEvent(new TeamUpdatedEvent().id("sales"));
+    release.countDown();
+    assertThat(load.get(10, TimeUnit.SECONDS).getName()).isEqualTo("sales");
+
+    assertThat(cache.getStats().size()).isZero();
+    cache.getTeam("sales");
+    assertThat(requests("sales")).isEqualTo(2);
+  }
+
+  private int requests(String teamId) {
+    return server.getRequests("GET", "/api/teams/" + teamId).size();
+  }
+}
@@ -0,0 +1,45 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.Team;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataClientTests {
+
+  @Test
+  void testAsyncClientUsesCredentialsOfApiClient() throws Exception {
+    try (var server = new EntropyDataTestServer(); var transport = EntropyDataHttpTransport.builder().build()) {
+      server.on("GET", "/api/teams", request -> EntropyDataTestServer.json("[]"));
+      var client = EntropyDataClient.builder().host(server.getBaseUrl()).transport(transport).build();
+      var asyncClient = client.getAsyncClient();
+      client.getApiClient().setApiKey("APIKEY");
+
+      assertThat(asyncClient.getTeamsApi().getTeams(null, null).get()).isEmpty();
+
+      assertThat(server.getRequests("GET", "/api/teams").get(0).headers()).containsEntry("x-api-key", "APIKEY");
+      assertThat(asyncClient.getUsageApi()).isNotNull();
+      assertThat(asyncClient.getLineageApi()).isNotNull();
+    }
+  }
+
+  @Test
+  void testNoNextPageAfterNoContent() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/teams", request -> "p=0".equals(request.query())
+          ? new EntropyDataTestServer.Response(200, "[{\"id\": \"sales\"}]", Map.of("Link", "</api/teams?p=1>; rel=\"next\""))
+          : EntropyDataTestServer.status(204));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+
+      client.getTeamsApi().getTeams(0, null);
+      assertThat(client.hasNextPage()).isTrue();
+      client.getTeamsApi().getTeams(1, null);
+      assertThat(client.hasNextPage()).isFalse();
+
+      try (var teams = client.streamTeams()) {
+        assertThat(teams.map(Team::getId).toList()).containsExactly("sales");
+      }
+    }
+  }
+}
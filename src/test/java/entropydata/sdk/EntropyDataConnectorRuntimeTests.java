@@ -0,0 +1,104 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataConnectorRuntimeTests {
+
+  @Test
+  void testCancelStopsConnectorAfterRunningRun() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    try (var server = new EntropyDataTestServer(); var runtime = new EntropyDataConnectorRuntime()) {
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> {
+        started.countDown();
+        // ignores the interrupt of cancel(), like a blocking request
+        awaitUninterruptibly(release);
+      });
+      var registration = runtime.addAssetsSynchronizer(synchronizer);
+      assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+      registration.cancel();
+
+      assertThat(registration.isCancelled()).isTrue();
+      assertThat(registration.isRunning()).isTrue();
+      assertThat(synchronizer.isStopped()).isFalse();
+
+      release.countDown();
+      awaitStopped(synchronizer);
+      assertThat(registration.isRunning()).isFalse();
+      assertThat(runtime.getRegistrations()).isEmpty();
+    }
+  }
+
+  @Test
+  void testCancelStopsIdleConnectorImmediately() throws Exception {
+    try (var server = new EntropyDataTestServer(); var runtime = new EntropyDataConnectorRuntime()) {
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var synchronizations = new CountDownLatch(1);
+      var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> synchronizations.countDown());
+      synchronizer.setDelay(Duration.ofHours(1));
+      var registration = runtime.addAssetsSynchronizer(synchronizer);
+      assertThat(synchronizations.await(10, TimeUnit.SECONDS)).isTrue();
+      while (registration.isRunning()) {
+        Thread.sleep(10);
+      }
+
+      registration.cancel();
+
+      assertThat(synchronizer.isStopped()).isTrue();
+    }
+  }
+
+  @Test
+  void testRegistrationsWithSameNameRunConcurrently() throws Exception {
+    var bothRunning = new CountDownLatch(2);
+    var runs = new CountDownLatch(2);
+    try (var runtime = new EntropyDataConnectorRuntime()) {
+      Runnable task = () -> {
+        bothRunning.countDown();
+        try {
+          if (bothRunning.await(10, TimeUnit.SECONDS)) {
+            runs.countDown();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      };
+      var first = runtime.scheduleWithFixedDelay("unittest", Duration.ofHours(1), task);
+      var second = runtime.scheduleWithFixedDelay("unittest", Duration.ofHours(1), task);
+
+      assertThat(runs.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(first.getName()).isEqualTo("unittest");
+      assertThat(second.getName()).isEqualTo("unittest-2");
+    }
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        latch.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitStopped(EntropyDataAssetsSynchronizer synchronizer) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!synchronizer.isStopped() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(synchronizer.isStopped()).isTrue();
+  }
+}
@@ -0,0 +1,67 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataCostPublisherTests {
+
+  @Test
+  void testLongLongMapAddsAndResizes() {
+    var map = new EntropyDataCostPublisher.LongLongMap(2);
+    for (long key = 1; key <= 10_000; key++) {
+      map.add(key << 32, key);
+    }
+    for (long key = 1; key <= 10_000; key += 2) {
+      map.add(key << 32, -key);
+    }
+
+    var entries = new HashMap<Long, Long>();
+    map.forEach(entries::put);
+
+    assertThat(map.size()).isEqualTo(10_000);
+    assertThat(entries).hasSize(10_000);
+    assertThat(entries).containsEntry(1L << 32, 0L);
+    assertThat(entries).containsEntry(2L << 32, 2L);
+    assertThat(entries).containsEntry(10_000L << 32, 10_000L);
+  }
+
+  @Test
+  void testFailedCostIsPublishedWithNextFlush() throws Exception {
+    var fail = new AtomicBoolean(true);
+    try (var server = new EntropyDataTestServer()) {
+      server.on("POST", "/api/costs", request -> fail.get() ? EntropyDataTestServer.status(500) : EntropyDataTestServer.json("{}"));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var month = YearMonth.of(2026, 10);
+
+      try (var publisher = new EntropyDataCostPublisher(client, Duration.ofHours(1), 2)) {
+        var key = publisher.key("orders", "Snowflake queries", "Compute", "USD");
+        for (int i = 0; i < 1000; i++) {
+          publisher.record(key, month, new BigDecimal("0.001"));
+        }
+        publisher.flush();
+        assertThat(publisher.getFailedCosts()).isEqualTo(1);
+        assertThat(publisher.getPublishedCosts()).isZero();
+
+        fail.set(false);
+        publisher.record(key, month, new BigDecimal("0.5"));
+        publisher.flush();
+        assertThat(publisher.getPublishedCosts()).isEqualTo(1);
+        assertThat(publisher.getRecordedRecords()).isEqualTo(1001);
+      }
+
+      var requests = server.getRequests("POST", "/api/costs");
+      assertThat(requests).hasSize(2);
+      var cost = new ObjectMapper().readTree(requests.get(1).body());
+      assertThat(cost.path("amount").decimalValue()).isEqualByComparingTo("1.5");
+      assertThat(cost.path("yearMonth").asText()).isEqualTo("2026-10");
+      assertThat(cost.path("dataProductId").asText()).isEqualTo("orders");
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.DataProductCreatedEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataEventCheckpointerTests {
+
+  private static final String event1 = "1ef9ebfd-1baf-6800-b4cc-29ec4630cb41";
+  private static final String event2 = "1ef9ebfd-1baf-6800-b4cc-29ec4630cb42";
+  private static final String event3 = "1ef9ebfd-1baf-6800-b4cc-29ec4630cb43";
+  private static final String event4 = "1ef9ebfd-1baf-6800-b4cc-29ec4630cb44";
+
+  private final List<String> checkpoints = new ArrayList<>();
+
+  @Test
+  void testEveryEventsSavesAfterMaxEvents() {
+    var checkpointer = new EntropyDataEventCheckpointer(checkpoints::add, EntropyDataCheckpointPolicy.everyEvents(3));
+
+    checkpointer.onEventProcessed("1");
+    checkpointer.onEventProcessed("2");
+    checkpointer.onEndOfBatch();
+    assertThat(checkpoints).isEmpty();
+    assertThat(checkpointer.getCheckpointLag()).isEqualTo(2);
+
+    checkpointer.onEventProcessed("3");
+    assertThat(checkpoints).containsExactly("3");
+    assertThat(checkpointer.getCheckpointLag()).isZero();
+    assertThat(checkpointer.getLastCheckpointEventId()).isEqualTo("3");
+  }
+
+  @Test
+  void testEndOfBatchSavesLastEventOfBatch() {
+    var checkpointer = new EntropyDataEventCheckpointer(checkpoints::add, EntropyDataCheckpointPolicy.endOfBatch());
+
+    checkpointer.onEventProcessed("1");
+    checkpointer.onEventProcessed("2");
+    assertThat(checkpoints).isEmpty();
+
+    checkpointer.onEndOfBatch();
+    checkpointer.onEndOfBatch();
+    assertThat(checkpoints).containsExactly("2");
+  }
+
+  @Test
+  void testIntervalSavesWhenIntervalElapsed() throws InterruptedException {
+    var checkpointer = new EntropyDataEventCheckpointer(checkpoints::add, EntropyDataCheckpointPolicy.interval(Duration.ofMillis(50)));
+
+    checkpointer.onEventProcessed("1");
+    checkpointer.flushIfIntervalElapsed();
+    assertThat(checkpoints).isEmpty();
+
+    Thread.sleep(60);
+    checkpointer.flushIfIntervalElapsed();
+    assertThat(checkpoints).containsExactly("1");
+
+    // an idle feed does not save the same checkpoint again
+    Thread.sleep(60);
+    checkpointer.flushIfIntervalElapsed();
+    assertThat(checkpoints).containsExactly("1");
+  }
+
+  @Test
+  void testFlushSavesPendingEventOnlyOnce() {
+    var checkpointer = new EntropyDataEventCheckpointer(checkpoints::add, EntropyDataCheckpointPolicy.everyEvents(100));
+
+    checkpointer.flush();
+    checkpointer.onEventProcessed("1");
+    checkpointer.onEventProcessed("2");
+    checkpointer.flush();
+    checkpointer.flush();
+
+    assertThat(checkpoints).containsExactly("2");
+  }
+
+  @Test
+  void testCheckpointIsLowWatermarkAfterFailedEvent() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/events", request -> !request.query().contains("lastEventId=")
+          ? EntropyDataTestServer.json("[" + String.join(",",
+              event(event1, "orders"), event(event2, "customers"), event(event3, "shipments"), event(event4, "orders")) + "]")
+          : EntropyDataTestServer.json("[]"));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+      var stateRepository = new EntropyDataStateRepositoryInMemory("unittest");
+      var listener = new EntropyDataEventListener("unittest", "unittest", client, new EntropyDataEventHandler() {
+        @Override
+        public void onDataProductCreatedEvent(DataProductCreatedEvent event) {
+          if (event.getId().equals("customers")) {
+            throw new IllegalStateException("Failed to process " + event.getId());
+          }
+        }
+      }, stateRepository);
+      listener.setConcurrency(4);
+      listener.setCheckpointPolicy(EntropyDataCheckpointPolicy.everyEvents(100));
+
+      listener.pollOnce();
+
+      // event 3 and 4 may have been processed, but event 2 has failed
+      assertThat(listener.getLastEventId()).isEqualTo(event1);
+      assertThat(stateRepository.getState().get("lastEventId")).isEqualTo(event1);
+      assertThat(listener.getCheckpointLag()).isZero();
+
+      listener.pollOnce();
+      listener.stop();
+      listener.closePolling();
+
+      assertThat(server.getRequests("GET", "/api/events").get(1).query()).contains("lastEventId=" + event1);
+    }
+  }
+
+  @Test
+  void testCheckpointLagIsRegisteredAsGauge() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/events", request -> !request.query().contains("lastEventId=")
+          ? EntropyDataTestServer.json("[" + String.join(",", event(event1, "orders"), event(event2, "customers")) + "]")
+          : EntropyDataTestServer.json("[]"));
+      var gauge = new AtomicReference<LongSupplier>();
+      var client = EntropyDataClient.builder().host(server.getBaseUrl()).apiKey("APIKEY").metrics(new EntropyDataMetrics() {
+        @Override
+        public void registerCheckpointLag(String connectorId, LongSupplier checkpointLag) {
+          gauge.set(checkpointLag);
+        }
+      }).build();
+      var listener = new EntropyDataEventListener("unittest", "unittest", client, new EntropyDataEventHandler() {
+      }, new EntropyDataStateRepositoryInMemory("unittest"));
+      listener.setCheckpointPolicy(EntropyDataCheckpointPolicy.everyEvents(100));
+      assertThat(gauge.get().getAsLong()).isZero();
+
+      listener.pollOnce();
+      assertThat(gauge.get().getAsLong()).isEqualTo(2);
+
+      listener.stop();
+      listener.closePolling();
+      assertThat(gauge.get().getAsLong()).isZero();
+    }
+  }
+
+  private static String event(String id, String dataProductId) {
+    return """
+        {
+          "specversion": "1.0",
+          "id": "%s",
+          "type": "com.entropy-data.events.DataProductCreatedEvent",
+          "source": "https://app.entropy-data.com",
+          "time": "2024-11-09T17:26:56.640037Z",
+          "datacontenttype": "application/json",
+          "data": {"id": "%s", "timestamp": "2024-11-09T17:26:56.640035Z"}
+        }""".formatted(id, dataProductId);
+  }
+}
@@ -0,0 +1,66 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.DataProductCreatedEvent;
+import entropydata.sdk.client.model.DataProductDeletedEvent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataEventDispatcherTests {
+
+  @Test
+  void testDispatchesTypedPayloadAndPartitionKey() throws Exception {
+    var received = new ArrayList<DataProductCreatedEvent>();
+    var dispatcher = new EntropyDataEventDispatcher(new EntropyDataEventHandler() {
+      @Override
+      public void onDataProductCreatedEvent(DataProductCreatedEvent event) {
+        received.add(event);
+      }
+    });
+
+    var events = dispatcher.decode(events("""
+        {
+          "specversion": "1.0",
+          "id": "1ef9ebfd-1baf-6800-b4cc-29ec4630cb43",
+          "type": "com.entropy-data.events.DataProductCreatedEvent",
+          "source": "https://app.entropy-data.com",
+          "data": {"id": "orders", "timestamp": "2024-11-09T17:26:56.640035Z"}
+        }"""));
+    events.forEach(dispatcher::dispatch);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).partitionKey()).isEqualTo("orders");
+    assertThat(received).hasSize(1);
+    assertThat(received.get(0).getId()).isEqualTo("orders");
+  }
+
+  @Test
+  void testDispatchesEventWithoutDataWithNullPayload() throws Exception {
+    var received = new ArrayList<DataProductDeletedEvent>();
+    var dispatcher = new EntropyDataEventDispatcher(new EntropyDataEventHandler() {
+      @Override
+      public void onDataProductDeletedEvent(DataProductDeletedEvent event) {
+        received.add(event);
+      }
+    });
+
+    var events = dispatcher.decode(events("""
+        {
+          "specversion": "1.0",
+          "id": "1ef9ebfd-1baf-6800-b4cc-29ec4630cb44",
+          "type": "com.entropy-data.events.DataProductDeletedEvent",
+          "source": "https://app.entropy-data.com"
+        }"""));
+    events.forEach(dispatcher::dispatch);
+
+    assertThat(events.get(0).partitionKey()).isEqualTo("1ef9ebfd-1baf-6800-b4cc-29ec4630cb44");
+    assertThat(received).hasSize(1);
+    assertThat(received.get(0)).isNull();
+  }
+
+  private static byte[] events(String event) {
+    return ("[" + event + "]").getBytes(StandardCharsets.UTF_8);
+  }
+}
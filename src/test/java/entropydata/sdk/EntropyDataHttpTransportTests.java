@@ -0,0 +1,95 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import entropydata.sdk.client.ApiException;
+import entropydata.sdk.client.model.Asset;
+import entropydata.sdk.client.model.AssetInfo;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataHttpTransportTests {
+
+  private EntropyDataTestServer server;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new EntropyDataTestServer();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @Test
+  void testCompressesRequestBodiesAboveThreshold() throws Exception {
+    try (var client = EntropyDataClient.builder().host(server.getBaseUrl()).apiKey("APIKEY").requestCompression(true).build()) {
+      var description = "x".repeat(2048);
+      client.getAssetsApi().addAsset("orders", new Asset().id("orders").info(new AssetInfo().name("orders").description(description)));
+      client.getAssetsApi().addAsset("customers", new Asset().id("customers").info(new AssetInfo().name("customers")));
+
+      var large = server.getRequests("PUT", "/api/assets/orders").get(0);
+      assertThat(large.headers().get("content-encoding")).isEqualTo("gzip");
+      assertThat(new ObjectMapper().readTree(large.body()).path("info").path("description").asText()).isEqualTo(description);
+      var small = server.getRequests("PUT", "/api/assets/customers").get(0);
+      assertThat(small.headers()).doesNotContainKey("content-encoding");
+    }
+  }
+
+  @Test
+  void testDecompressesGzipResponses() {
+    server.on("GET", "/api/teams/sales", request -> new EntropyDataTestServer.Response(200,
+        "{\"id\": \"sales\", \"name\": \"Sales\"}", Map.of("Content-Encoding", "gzip")));
+    try (var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY")) {
+      assertThat(client.getTeamsApi().getTeam("sales").getName()).isEqualTo("Sales");
+
+      assertThat(server.getRequests("GET", "/api/teams/sales").get(0).headers().get("accept-encoding")).contains("gzip");
+    }
+  }
+
+  @Test
+  void testResponseTimeout() {
+    var release = new CountDownLatch(1);
+    server.on("GET", "/api/teams/sales", request -> {
+      release.await(10, TimeUnit.SECONDS);
+      return EntropyDataTestServer.json("{\"id\": \"sales\"}");
+    });
+    try (var client = EntropyDataClient.builder().host(server.getBaseUrl()).apiKey("APIKEY")
+        .responseTimeout(Duration.ofMillis(200)).build()) {
+      long start = System.nanoTime();
+
+      assertThatThrownBy(() -> client.getTeamsApi().getTeam("sales"))
+          .isInstanceOf(ApiException.class)
+          .hasCauseInstanceOf(SocketTimeoutException.class);
+      assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void testSharedTransportOutlivesClients() {
+    server.on("GET", "/api/teams/sales", request -> EntropyDataTestServer.json("{\"id\": \"sales\"}"));
+    try (var transport = EntropyDataHttpTransport.builder().maxConnections(2).build()) {
+      var first = EntropyDataClient.builder().host(server.getBaseUrl()).apiKey("FIRST").transport(transport).build();
+      var second = EntropyDataClient.builder().host(server.getBaseUrl()).apiKey("SECOND").transport(transport).build();
+
+      first.getTeamsApi().getTeam("sales");
+      first.close();
+      second.getTeamsApi().getTeam("sales");
+
+      assertThat(server.getRequests("GET", "/api/teams/sales").stream().map(request -> request.headers().get("x-api-key")).toList())
+          .containsExactly("FIRST", "SECOND");
+      assertThat(transport.getPoolStats()).contains("leased: 0");
+    }
+  }
+}
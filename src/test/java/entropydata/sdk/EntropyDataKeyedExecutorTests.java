@@ -0,0 +1,77 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataKeyedExecutorTests {
+
+  @Test
+  void testTasksWithSameKeyRunInOrder() throws Exception {
+    var executed = Collections.synchronizedList(new ArrayList<Integer>());
+    try (var executor = new EntropyDataKeyedExecutor("test", 4, 100)) {
+      for (int i = 0; i < 100; i++) {
+        int task = i;
+        executor.submit("key-" + task % 3, () -> executed.add(task));
+      }
+      executor.awaitCompletion();
+    }
+
+    assertThat(executed).hasSize(100);
+    for (int key = 0; key < 3; key++) {
+      int k = key;
+      assertThat(executed.stream().filter(task -> task % 3 == k).toList()).isSorted();
+    }
+  }
+
+  @Test
+  void testFailedTaskSkipsLaterTasksWithSameKey() throws Exception {
+    var executed = Collections.synchronizedList(new ArrayList<String>());
+    var release = new CountDownLatch(1);
+    try (var executor = new EntropyDataKeyedExecutor("test", 2, 100)) {
+      var failed = executor.submit("a", () -> {
+        await(release);
+        throw new IllegalStateException("a1 failed");
+      });
+      var skippedWhilePending = executor.submit("a", () -> executed.add("a2"));
+      var otherKey = executor.submit("b", () -> executed.add("b1"));
+      release.countDown();
+      otherKey.join();
+      assertThat(failed).isCompletedExceptionally();
+      assertThat(skippedWhilePending).isCompletedExceptionally();
+
+      // the failed task has completed, but a later task with the same key still must not overtake it
+      var skippedAfterFailure = executor.submit("a", () -> executed.add("a3"));
+      assertThat(skippedAfterFailure).isCompletedExceptionally();
+      assertThat(exceptionOf(skippedAfterFailure)).isInstanceOf(IllegalStateException.class).hasMessage("a1 failed");
+
+      // the batch is retried after all tasks have completed
+      executor.awaitCompletion();
+      executor.submit("a", () -> executed.add("a1 retried")).join();
+      executor.submit("a", () -> executed.add("a2 retried")).join();
+    }
+
+    assertThat(executed).containsExactly("b1", "a1 retried", "a2 retried");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Throwable exceptionOf(CompletableFuture<Void> future) {
+    try {
+      future.join();
+      return null;
+    } catch (RuntimeException e) {
+      return e.getCause();
+    }
+  }
+}
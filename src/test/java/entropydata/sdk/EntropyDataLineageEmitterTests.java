@@ -0,0 +1,139 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import entropydata.sdk.client.model.OpenLineageRunEvent;
+import entropydata.sdk.client.model.OpenLineageRunEvent.EventTypeEnum;
+import entropydata.sdk.client.model.OpenLineageRunEventRun;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EntropyDataLineageEmitterTests {
+
+  @TempDir
+  Path tempDir;
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private EntropyDataTestServer server;
+  private EntropyDataClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new EntropyDataTestServer();
+    server.on("POST", "/api/v1/lineage", request -> {
+      release.await(10, TimeUnit.SECONDS);
+      return EntropyDataTestServer.json("{}");
+    });
+    client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @Test
+  void testCoalescesRunningEvents() throws Exception {
+    var emitter = new EntropyDataLineageEmitter(client, 1, 100, null);
+    emitter.emit(event("run-1", EventTypeEnum.START));
+    for (int i = 0; i < 5; i++) {
+      emitter.emit(event("run-1", EventTypeEnum.RUNNING));
+    }
+    emitter.emit(event("run-1", EventTypeEnum.COMPLETE));
+    release.countDown();
+    emitter.close();
+
+    assertThat(deliveredEvents()).containsExactly("run-1:START", "run-1:COMPLETE");
+    assertThat(emitter.getDeliveredEvents()).isEqualTo(2);
+    assertThat(emitter.getCoalescedEvents()).isEqualTo(5);
+  }
+
+  @Test
+  void testSpillsAndReplaysEventsInOrder() throws Exception {
+    var spillFile = tempDir.resolve("lineage.jsonl");
+    var emitter = new EntropyDataLineageEmitter(client, 1, 2, spillFile);
+    for (int i = 0; i < 10; i++) {
+      assertThat(emitter.emit(event("run-" + i, EventTypeEnum.START))).isTrue();
+    }
+    assertThat(emitter.getSpilledEvents()).isPositive();
+    assertThat(emitter.getDroppedEvents()).isZero();
+
+    release.countDown();
+    await(() -> emitter.getDeliveredEvents() == 10);
+    emitter.close();
+
+    assertThat(deliveredEvents()).containsExactly("run-0:START", "run-1:START", "run-2:START", "run-3:START", "run-4:START",
+        "run-5:START", "run-6:START", "run-7:START", "run-8:START", "run-9:START");
+    assertThat(spillFile).doesNotExist();
+  }
+
+  @Test
+  void testReplaysSpillFileAfterRestartAndSkipsUndecodableLines() throws Exception {
+    var spillFile = tempDir.resolve("lineage.jsonl");
+    Files.write(spillFile, List.of(
+        spilledEvent("run-1"),
+        "{\"event\": {\"eventType\": \"START\", \"run\": {\"ru", // written partially before a crash
+        spilledEvent("run-2")));
+    release.countDown();
+
+    var emitter = new EntropyDataLineageEmitter(client, 1, 100, spillFile);
+    await(() -> emitter.getDeliveredEvents() == 2);
+    emitter.close();
+
+    assertThat(deliveredEvents()).containsExactly("run-1:START", "run-2:START");
+    assertThat(emitter.getDroppedEvents()).isEqualTo(1);
+    assertThat(spillFile).doesNotExist();
+    assertThat(spillFile.resolveSibling("lineage.jsonl.replay")).doesNotExist();
+
+    // new events are queued again after the replay
+    var restarted = new EntropyDataLineageEmitter(client, 1, 100, spillFile);
+    restarted.emit(event("run-3", EventTypeEnum.START));
+    restarted.close();
+    assertThat(restarted.getSpilledEvents()).isZero();
+    assertThat(restarted.getDeliveredEvents()).isEqualTo(1);
+  }
+
+  private List<String> deliveredEvents() throws IOException {
+    var events = new ArrayList<String>();
+    for (var request : server.getRequests("POST", "/api/v1/lineage")) {
+      var event = objectMapper.readTree(request.body());
+      events.add(event.path("run").path("runId").asText() + ":" + event.path("eventType").asText());
+    }
+    return events;
+  }
+
+  private String spilledEvent(String runId) throws IOException {
+    var queuedEvent = new EntropyDataLineageEmitter.QueuedEvent(event(runId, EventTypeEnum.START), null, null);
+    return client.getApiClient().getObjectMapper().writeValueAsString(queuedEvent);
+  }
+
+  private static OpenLineageRunEvent event(String runId, EventTypeEnum eventType) {
+    return new OpenLineageRunEvent()
+        .eventType(eventType)
+        .eventTime(OffsetDateTime.now())
+        .run(new OpenLineageRunEventRun().runId(runId))
+        .producer("https://example.com/producer")
+        .schemaURL("https://openlineage.io/spec/2-0-2/OpenLineage.json");
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+}
@@ -0,0 +1,140 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import entropydata.sdk.EntropyDataMetrics.AssetOutcome;
+import entropydata.sdk.client.ApiException;
+import entropydata.sdk.client.model.Asset;
+import entropydata.sdk.client.model.AssetInfo;
+import entropydata.sdk.client.model.DataProductCreatedEvent;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataMetricsTests {
+
+  private final RecordingMetrics metrics = new RecordingMetrics();
+  private EntropyDataTestServer server;
+  private EntropyDataClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new EntropyDataTestServer();
+    client = EntropyDataClient.builder().host(server.getBaseUrl()).apiKey("APIKEY").metrics(metrics).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void testRecordsRequests() {
+    server.on("GET", "/api/teams/sales", request -> EntropyDataTestServer.json("{\"id\": \"sales\"}"));
+    server.on("DELETE", "/api/assets/orders", request -> EntropyDataTestServer.status(204));
+
+    client.getTeamsApi().getTeam("sales");
+    assertThatThrownBy(() -> client.getTeamsApi().getTeam("marketing")).isInstanceOf(ApiException.class);
+    client.getAssetsApi().deleteAsset("orders");
+
+    assertThat(metrics.requests).containsExactly("teams GET 200", "teams GET 404", "assets DELETE 204");
+  }
+
+  @Test
+  void testRecordsEventsAndCheckpointLag() {
+    server.on("GET", "/api/events", request -> !request.query().contains("lastEventId=")
+        ? EntropyDataTestServer.json("[" + event("1ef9ebfd-1baf-6800-b4cc-29ec4630cb41", "orders") + ","
+            + event("1ef9ebfd-1baf-6800-b4cc-29ec4630cb42", "customers") + "]")
+        : EntropyDataTestServer.json("[]"));
+    var listener = new EntropyDataEventListener("unittest", "unittest", client, new EntropyDataEventHandler() {
+      @Override
+      public void onDataProductCreatedEvent(DataProductCreatedEvent event) {
+        if (event.getId().equals("customers")) {
+          throw new IllegalStateException("Failed to process " + event.getId());
+        }
+      }
+    }, new EntropyDataStateRepositoryInMemory("unittest"));
+    listener.setCheckpointPolicy(EntropyDataCheckpointPolicy.everyEvents(100));
+    assertThat(metrics.checkpointLag.get().getAsLong()).isZero();
+
+    listener.pollOnce();
+
+    assertThat(metrics.events).containsExactly(
+        "unittest com.entropy-data.events.DataProductCreatedEvent ok",
+        "unittest com.entropy-data.events.DataProductCreatedEvent failed");
+    // the failed event has saved the checkpoint before it
+    assertThat(metrics.checkpointLag.get().getAsLong()).isZero();
+    listener.stop();
+    listener.closePolling();
+  }
+
+  @Test
+  void testRecordsAssets() {
+    server.on("GET", "/api/assets/orders", request -> EntropyDataTestServer.status(404));
+    var asset = new Asset().id("orders").info(new AssetInfo().source("snowflake").type("table").name("orders"));
+    var synchronizer = new EntropyDataAssetsSynchronizer("unittest", client, callback -> callback.onAssetUpdated(asset));
+
+    synchronizer.synchronizeAssets();
+    server.on("GET", "/api/assets/orders", request -> EntropyDataTestServer.json(
+        "{\"id\": \"orders\", \"info\": {\"source\": \"snowflake\", \"type\": \"table\", \"name\": \"orders\"}}"));
+    synchronizer.synchronizeAssets();
+    synchronizer.deleteAsset("orders");
+
+    assertThat(metrics.assets).containsExactly(
+        "unittest SCANNED", "unittest WRITTEN", "unittest SCANNED", "unittest SKIPPED", "unittest DELETED");
+    assertThat(metrics.synchronizations).containsExactly("unittest ok", "unittest ok");
+  }
+
+  private static String event(String id, String dataProductId) {
+    return """
+        {
+          "specversion": "1.0",
+          "id": "%s",
+          "type": "com.entropy-data.events.DataProductCreatedEvent",
+          "source": "https://app.entropy-data.com",
+          "time": "2024-11-09T17:26:56.640037Z",
+          "datacontenttype": "application/json",
+          "data": {"id": "%s", "timestamp": "2024-11-09T17:26:56.640035Z"}
+        }""".formatted(id, dataProductId);
+  }
+
+  private static class RecordingMetrics implements EntropyDataMetrics {
+
+    final List<String> requests = new CopyOnWriteArrayList<>();
+    final List<String> events = new CopyOnWriteArrayList<>();
+    final List<String> assets = new CopyOnWriteArrayList<>();
+    final List<String> synchronizations = new CopyOnWriteArrayList<>();
+    final AtomicReference<LongSupplier> checkpointLag = new AtomicReference<>();
+
+    @Override
+    public void recordRequest(String api, String method, int status, long durationNanos) {
+      requests.add(api + " " + method + " " + status);
+    }
+
+    @Override
+    public void recordEvent(String connectorId, String eventType, long durationNanos, boolean failed) {
+      events.add(connectorId + " " + eventType + " " + (failed ? "failed" : "ok"));
+    }
+
+    @Override
+    public void registerCheckpointLag(String connectorId, LongSupplier checkpointLag) {
+      this.checkpointLag.set(checkpointLag);
+    }
+
+    @Override
+    public void recordAsset(String connectorId, AssetOutcome outcome) {
+      assets.add(connectorId + " " + outcome);
+    }
+
+    @Override
+    public void recordSynchronization(String connectorId, long durationNanos, boolean failed) {
+      synchronizations.add(connectorId + " " + (failed ? "failed" : "ok"));
+    }
+  }
+}
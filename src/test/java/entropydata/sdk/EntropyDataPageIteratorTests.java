@@ -0,0 +1,81 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.Team;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataPageIteratorTests {
+
+  @Test
+  void testStopsAtLastPage() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/teams", request -> switch (request.query()) {
+        case "p=0" -> teams("[{\"id\": \"sales\"}, {\"id\": \"marketing\"}]", "</api/teams?p=1>; rel=\"next\"");
+        case "p=1" -> teams("[{\"id\": \"finance\"}, {\"id\": \"legal\"}]", "</api/teams?p=2>; rel=\"next\"");
+        default -> teams("[{\"id\": \"support\"}]", null);
+      });
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+
+      try (var teams = client.streamTeams()) {
+        assertThat(teams.map(Team::getId).toList()).containsExactly("sales", "marketing", "finance", "legal", "support");
+      }
+      assertThat(server.getRequests("GET", "/api/teams").stream().map(EntropyDataTestServer.Request::query).toList())
+          .containsExactly("p=0", "p=1", "p=2");
+    }
+  }
+
+  @Test
+  void testDoesNotFetchPastShortPage() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      server.on("GET", "/api/teams", request -> teams("[{\"id\": \"sales\"}]", null));
+      var client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+
+      try (var teams = client.streamTeams()) {
+        assertThat(teams.map(Team::getId).toList()).containsExactly("sales");
+      }
+      Thread.sleep(100);
+      assertThat(server.getRequests("GET", "/api/teams")).hasSize(1);
+    }
+  }
+
+  @Test
+  void testStopsAtEmptyPageWithNextLink() {
+    var fetchedPages = new CopyOnWriteArrayList<Integer>();
+    var iterator = new EntropyDataPageIterator<String>(page -> {
+      fetchedPages.add(page);
+      return new EntropyDataPageIterator.Page<>(page == 0 ? List.of("a") : List.of(), true);
+    });
+
+    assertThat(iterator.next()).isEqualTo("a");
+    assertThat(iterator.hasNext()).isFalse();
+    assertThat(fetchedPages).containsExactly(0, 1);
+  }
+
+  @Test
+  void testPrefetchesAtMostOnePageAhead() throws Exception {
+    var fetchedPages = new CopyOnWriteArrayList<Integer>();
+    try (var iterator = new EntropyDataPageIterator<String>(page -> {
+      fetchedPages.add(page);
+      return new EntropyDataPageIterator.Page<>(List.of(page + "a", page + "b"), page < 9);
+    })) {
+      assertThat(fetchedPages).isEmpty();
+
+      assertThat(iterator.next()).isEqualTo("0a");
+      Thread.sleep(100);
+      assertThat(fetchedPages).containsExactly(0, 1);
+
+      iterator.next();
+      assertThat(iterator.next()).isEqualTo("1a");
+      Thread.sleep(100);
+      assertThat(fetchedPages).containsExactly(0, 1, 2);
+    }
+  }
+
+  private static EntropyDataTestServer.Response teams(String body, String link) {
+    return new EntropyDataTestServer.Response(200, body, link != null ? Map.of("Link", link) : Map.of());
+  }
+}
@@ -0,0 +1,65 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataPollingPolicyTests {
+
+  private final EntropyDataPollingPolicy policy = EntropyDataPollingPolicy.adaptive(Duration.ofSeconds(1), Duration.ofSeconds(5))
+      .withJitter(0);
+
+  @Test
+  void testDelayAfterPage() {
+    assertThat(policy.delayAfterPage(EntropyDataPollingPolicy.pageSize, 0)).isEqualTo(Duration.ZERO);
+    assertThat(policy.delayAfterPage(1, 0)).isEqualTo(Duration.ofSeconds(1));
+    assertThat(policy.delayAfterPage(0, 1)).isEqualTo(Duration.ofSeconds(1));
+    assertThat(policy.delayAfterPage(0, 2)).isEqualTo(Duration.ofSeconds(2));
+    assertThat(policy.delayAfterPage(0, 3)).isEqualTo(Duration.ofSeconds(4));
+    assertThat(policy.delayAfterPage(0, 4)).isEqualTo(Duration.ofSeconds(5));
+    assertThat(policy.delayAfterPage(0, Integer.MAX_VALUE)).isEqualTo(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void testDelayAfterPageWithLongPolling() {
+    var longPolling = policy.withLongPolling(true);
+
+    assertThat(longPolling.delayAfterPage(0, 10)).isEqualTo(Duration.ofSeconds(1));
+    assertThat(longPolling.delayAfterPage(EntropyDataPollingPolicy.pageSize, 0)).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  void testDelayAfterError() {
+    var errors = policy.withMaxErrorInterval(Duration.ofSeconds(30));
+
+    assertThat(errors.delayAfterError(1)).isEqualTo(Duration.ofSeconds(5));
+    assertThat(errors.delayAfterError(2)).isEqualTo(Duration.ofSeconds(10));
+    assertThat(errors.delayAfterError(3)).isEqualTo(Duration.ofSeconds(20));
+    assertThat(errors.delayAfterError(4)).isEqualTo(Duration.ofSeconds(30));
+    assertThat(errors.delayAfterError(100)).isEqualTo(Duration.ofSeconds(30));
+    // a maximum below the initial error interval caps the first delay
+    assertThat(errors.withMaxErrorInterval(Duration.ofSeconds(2)).delayAfterError(1)).isEqualTo(Duration.ofSeconds(2));
+  }
+
+  @Test
+  void testJitterStaysWithinBounds() {
+    var jittered = policy.withJitter(0.2);
+    for (int i = 0; i < 1000; i++) {
+      var delay = jittered.delayAfterPage(0, 10).toMillis();
+      assertThat(delay).isGreaterThanOrEqualTo(4000L);
+      assertThat(delay).isLessThanOrEqualTo(6000L);
+    }
+  }
+
+  @Test
+  void testRejectsZeroIntervals() {
+    assertThatThrownBy(() -> EntropyDataPollingPolicy.fixed(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> EntropyDataPollingPolicy.adaptive(Duration.ZERO, Duration.ofSeconds(5)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> policy.withMaxInterval(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> policy.withMaxErrorInterval(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThat(policy.withMaxInterval(Duration.ofMillis(500)).getMinInterval()).isEqualTo(Duration.ofMillis(500));
+  }
+}
@@ -0,0 +1,55 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import entropydata.sdk.client.model.DataProduct;
+import entropydata.sdk.client.model.OutputPortCreatedEvent;
+import entropydata.sdk.client.model.OutputPortDeletedEvent;
+import entropydata.sdk.client.model.OutputPortUpdatedEvent;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataReplicaTests {
+
+  @Test
+  void testOutputPortEventsRefreshDataProduct() throws Exception {
+    try (var server = new EntropyDataTestServer()) {
+      var orders = new AtomicReference<>(dataProduct("orders", "snowflake"));
+      server.on("GET", "/api/dataproducts", request -> EntropyDataTestServer.json(
+          "[" + orders.get() + "," + dataProduct("customers", "snowflake") + "]"));
+      server.on("GET", "/api/dataproducts/orders", request -> EntropyDataTestServer.json(orders.get()));
+      server.on("GET", "/api/datacontracts", request -> EntropyDataTestServer.json("[]"));
+      server.on("GET", "/api/access", request -> EntropyDataTestServer.json("[]"));
+      var replica = new EntropyDataReplica(new EntropyDataClient(server.getBaseUrl(), "APIKEY"));
+      replica.seed();
+
+      // output port ids are only unique within a data product
+      assertThat(replica.getDataProductByOutputPort("orders", "snowflake").map(DataProduct::getId)).contains("orders");
+      assertThat(replica.getDataProductByOutputPort("customers", "snowflake").map(DataProduct::getId)).contains("customers");
+
+      orders.set(dataProduct("orders", "snowflake", "kafka"));
+      replica.onOutputPortCreatedEvent(new OutputPortCreatedEvent().id("orders").outputPortId("kafka"));
+      assertThat(replica.getDataProductByOutputPort("orders", "kafka").map(DataProduct::getId)).contains("orders");
+
+      orders.set(dataProduct("orders", "kafka"));
+      replica.onOutputPortUpdatedEvent(new OutputPortUpdatedEvent().id("orders").outputPortId("kafka"));
+      assertThat(replica.getDataProductByOutputPort("orders", "snowflake")).isEmpty();
+      assertThat(replica.getDataProductByOutputPort("customers", "snowflake").map(DataProduct::getId)).contains("customers");
+
+      orders.set(dataProduct("orders"));
+      replica.onOutputPortDeletedEvent(new OutputPortDeletedEvent().id("orders").outputPortId("kafka"));
+      assertThat(replica.getDataProductByOutputPort("orders", "kafka")).isEmpty();
+      assertThat(replica.getDataProduct("orders").map(DataProduct::getOutputPorts).orElseThrow()).isEmpty();
+      assertThat(server.getRequests("GET", "/api/dataproducts/orders")).hasSize(3);
+    }
+  }
+
+  private static String dataProduct(String id, String... outputPortIds) {
+    var outputPorts = new StringBuilder();
+    for (var outputPortId : outputPortIds) {
+      outputPorts.append(outputPorts.isEmpty() ? "" : ",").append("{\"id\": \"").append(outputPortId).append("\"}");
+    }
+    return """
+        {"id": "%s", "info": {"title": "%s", "owner": "sales"}, "outputPorts": [%s]}""".formatted(id, id, outputPorts);
+  }
+}
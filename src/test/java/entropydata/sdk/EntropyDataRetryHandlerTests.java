@@ -0,0 +1,126 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import entropydata.sdk.EntropyDataRetryHandler.CircuitState;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataRetryHandlerTests {
+
+  private final AtomicInteger status = new AtomicInteger(200);
+  private EntropyDataTestServer server;
+  private EntropyDataRetryHandler retryHandler;
+  private EntropyDataHttpTransport transport;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new EntropyDataTestServer();
+    server.on("GET", "/api/ping", request -> EntropyDataTestServer.status(status.get()));
+    retryHandler = new EntropyDataRetryHandler();
+    retryHandler.setMaxAttempts(1);
+    retryHandler.setFailureThreshold(2);
+    retryHandler.setOpenDuration(Duration.ofMillis(100));
+    transport = EntropyDataHttpTransport.builder().retryHandler(retryHandler).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    transport.close();
+    server.close();
+  }
+
+  private int get() throws IOException {
+    return transport.getHttpClient().execute(new HttpGet(server.getBaseUrl() + "/api/ping"), response -> response.getCode());
+  }
+
+  @Test
+  void testCircuitBreakerOpensAndCloses() throws Exception {
+    status.set(503);
+    assertThat(get()).isEqualTo(503);
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.CLOSED);
+    assertThat(get()).isEqualTo(503);
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.OPEN);
+
+    // fails fast without reaching the server
+    int requests = server.getRequests("GET", "/api/ping").size();
+    assertThatThrownBy(this::get).isInstanceOf(IOException.class).hasMessageContaining("Circuit breaker is open");
+    assertThat(server.getRequests("GET", "/api/ping")).hasSize(requests);
+
+    // a failed trial request opens the circuit again
+    Thread.sleep(150);
+    assertThat(get()).isEqualTo(503);
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.OPEN);
+
+    // a successful trial request closes it
+    Thread.sleep(150);
+    status.set(200);
+    assertThat(get()).isEqualTo(200);
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.CLOSED);
+  }
+
+  @Test
+  void testInterruptedTrialRequestDoesNotBlockTheCircuit() throws Exception {
+    retryHandler.setFailureThreshold(1);
+    // the first request takes the only token, so the trial request has to wait for a token
+    retryHandler.setMaxRequestsPerSecond(1);
+    status.set(503);
+    assertThat(get()).isEqualTo(503);
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.OPEN);
+
+    Thread.sleep(150);
+    Thread.currentThread().interrupt();
+    try {
+      assertThatThrownBy(this::get).isInstanceOf(IOException.class);
+    } finally {
+      Thread.interrupted();
+    }
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.HALF_OPEN);
+
+    // the next request is let through as a new trial request
+    status.set(200);
+    assertThat(get()).isEqualTo(200);
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.CLOSED);
+  }
+
+  @Test
+  void testRetriesAfterRetryAfterTime() throws Exception {
+    retryHandler.setMaxAttempts(3);
+    var attempts = new AtomicInteger();
+    server.on("GET", "/api/ping", request -> attempts.incrementAndGet() == 1
+        ? new EntropyDataTestServer.Response(429, "{}", Map.of("Retry-After", "1"))
+        : EntropyDataTestServer.status(200));
+
+    long start = System.nanoTime();
+    assertThat(get()).isEqualTo(200);
+
+    assertThat(attempts.get()).isEqualTo(2);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    // 429 halves the rate
+    assertThat(retryHandler.getCurrentRate()).isLessThan(retryHandler.getMaxRequestsPerSecond());
+    assertThat(retryHandler.getCircuitState()).isEqualTo(CircuitState.CLOSED);
+  }
+
+  @Test
+  void testRetryAfterIsLimitedToMaxBackoff() throws Exception {
+    retryHandler.setMaxAttempts(2);
+    retryHandler.setMaxBackoff(Duration.ofMillis(100));
+    var attempts = new AtomicInteger();
+    server.on("GET", "/api/ping", request -> attempts.incrementAndGet() == 1
+        ? new EntropyDataTestServer.Response(429, "{}", Map.of("Retry-After", "3600"))
+        : EntropyDataTestServer.status(200));
+
+    long start = System.nanoTime();
+    assertThat(get()).isEqualTo(200);
+
+    assertThat(attempts.get()).isEqualTo(2);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+  }
+}
@@ -0,0 +1,120 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataStateRepositoryCachedTests {
+
+  private final RecordingRepository delegate = new RecordingRepository();
+
+  @Test
+  void testCoalescesWrites() throws Exception {
+    try (var repository = new EntropyDataStateRepositoryCached(delegate, Duration.ofMillis(200))) {
+      for (int i = 1; i <= 10; i++) {
+        repository.saveState(Map.of("lastEventId", String.valueOf(i)));
+      }
+      awaitSaves(1);
+      Thread.sleep(300);
+
+      assertThat(delegate.saves).hasSize(1);
+      assertThat(delegate.getState()).isEqualTo(Map.of("lastEventId", "10"));
+    }
+    assertThat(delegate.saves).hasSize(1);
+  }
+
+  @Test
+  void testSkipsUnchangedState() {
+    delegate.saveState(Map.of("lastEventId", "1"));
+    delegate.saves.clear();
+    try (var repository = new EntropyDataStateRepositoryCached(delegate, Duration.ofHours(1))) {
+      repository.saveState(Map.of("lastEventId", "1"));
+      repository.putState("lastEventId", "1");
+      repository.removeState("highWaterMark");
+    }
+    assertThat(delegate.saves).isEmpty();
+  }
+
+  @Test
+  void testRetriesWithBackoffAfterFailure() throws Exception {
+    delegate.failures.set(2);
+    try (var repository = new EntropyDataStateRepositoryCached(delegate, Duration.ofMillis(50))) {
+      repository.saveState(Map.of("lastEventId", "1"));
+      awaitSaves(3);
+    }
+
+    assertThat(delegate.getState()).isEqualTo(Map.of("lastEventId", "1"));
+    // the delay after a failure doubles, starting from the write delay
+    long firstBackoff = delegate.saves.get(1) - delegate.saves.get(0);
+    long secondBackoff = delegate.saves.get(2) - delegate.saves.get(1);
+    assertThat(firstBackoff).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(90));
+    assertThat(secondBackoff).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(190));
+  }
+
+  @Test
+  void testCloseFlushesPendingState() {
+    var repository = new EntropyDataStateRepositoryCached(delegate, Duration.ofHours(1));
+    repository.saveState(Map.of("lastEventId", "1"));
+    assertThat(delegate.saves).isEmpty();
+
+    repository.close();
+    assertThat(delegate.getState()).isEqualTo(Map.of("lastEventId", "1"));
+
+    // after close, saves are written through
+    repository.putState("lastEventId", "2");
+    assertThat(delegate.getState()).isEqualTo(Map.of("lastEventId", "2"));
+  }
+
+  @Test
+  void testConcurrentPutStateKeepsAllEntries() throws Exception {
+    var delegate = new EntropyDataStateRepositoryInMemory("unittest");
+    try (var repository = new EntropyDataStateRepositoryCached(delegate, Duration.ofMillis(1))) {
+      EntropyDataStateRepositoryLocalFileTests.runConcurrently(8, 500, (thread, i) -> {
+        repository.putState(thread + "-" + i, i);
+        repository.removeState(thread + "-" + (i - 1));
+      });
+      assertThat(repository.getState()).hasSize(8);
+    }
+
+    assertThat(delegate.getState()).hasSize(8);
+    assertThat(delegate.getState()).containsEntry("7-499", 499);
+  }
+
+  private void awaitSaves(int saves) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (delegate.saves.size() < saves && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(delegate.saves).hasSize(saves);
+  }
+
+  /**
+   * Records the time of every save attempt and fails the first attempts.
+   */
+  private static class RecordingRepository implements EntropyDataStateRepository {
+
+    final List<Long> saves = new CopyOnWriteArrayList<>();
+    final AtomicInteger failures = new AtomicInteger();
+    private final EntropyDataStateRepositoryInMemory state = new EntropyDataStateRepositoryInMemory("unittest");
+
+    @Override
+    public Map<String, Object> getState() {
+      return state.getState();
+    }
+
+    @Override
+    public void saveState(Map<String, Object> newState) {
+      saves.add(System.nanoTime());
+      if (failures.getAndDecrement() > 0) {
+        throw new IllegalStateException("Unavailable");
+      }
+      state.saveState(newState);
+    }
+  }
+}
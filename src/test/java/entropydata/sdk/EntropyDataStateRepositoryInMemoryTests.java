@@ -0,0 +1,100 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataStateRepositoryInMemoryTests {
+
+  @Test
+  void testGetStateReturnsSnapshot() {
+    var repository = new EntropyDataStateRepositoryInMemory("unittest");
+    assertThat(repository.getState()).isEmpty();
+
+    var state = new HashMap<String, Object>();
+    state.put("lastEventId", "1");
+    repository.saveState(state);
+    state.put("lastEventId", "2");
+
+    var snapshot = repository.getState();
+    assertThat(snapshot).isEqualTo(Map.of("lastEventId", "1"));
+    repository.putState("lastEventId", "3");
+    assertThat(snapshot).isEqualTo(Map.of("lastEventId", "1"));
+    assertThatThrownBy(() -> snapshot.put("lastEventId", "4")).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void testSaveNullStateClearsState() {
+    var repository = new EntropyDataStateRepositoryInMemory("unittest");
+    repository.saveState(Map.of("lastEventId", "1"));
+
+    repository.saveState(null);
+
+    assertThat(repository.getState()).isEmpty();
+    repository.putState("lastEventId", "2");
+    assertThat(repository.getState()).isEqualTo(Map.of("lastEventId", "2"));
+  }
+
+  @Test
+  void testForConnectorSharesStoreButNotState() {
+    var orders = new EntropyDataStateRepositoryInMemory("orders");
+    var customers = orders.forConnector("customers");
+    orders.saveState(Map.of("lastEventId", "1"));
+    customers.putState("lastEventId", "2");
+
+    assertThat(orders.getState()).isEqualTo(Map.of("lastEventId", "1"));
+    assertThat(customers.getState()).isEqualTo(Map.of("lastEventId", "2"));
+    assertThat(customers.forConnector("orders").getState()).isEqualTo(Map.of("lastEventId", "1"));
+
+    orders.saveState(null);
+    assertThat(customers.getState()).isEqualTo(Map.of("lastEventId", "2"));
+  }
+
+  @Test
+  void testConcurrentPutStateKeepsAllEntries() throws Exception {
+    var repository = new EntropyDataStateRepositoryInMemory("unittest");
+    var other = repository.forConnector("other");
+    int threads = 8;
+    int keysPerThread = 500;
+    var start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      var futures = new ArrayList<CompletableFuture<Void>>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        futures.add(CompletableFuture.runAsync(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          for (int i = 0; i < keysPerThread; i++) {
+            repository.putState(thread + "-" + i, i);
+            other.updateState(state -> {
+              var updated = new HashMap<>(state);
+              updated.merge("count", 1, (a, b) -> (Integer) a + (Integer) b);
+              return updated;
+            });
+          }
+          repository.removeState(thread + "-0");
+        }, executor));
+      }
+      start.countDown();
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(repository.getState()).hasSize(threads * (keysPerThread - 1));
+    assertThat(repository.getState()).containsEntry("7-499", 499);
+    assertThat(other.getState()).isEqualTo(Map.of("count", threads * keysPerThread));
+  }
+}
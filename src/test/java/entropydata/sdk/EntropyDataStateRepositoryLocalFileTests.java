@@ -0,0 +1,177 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import entropydata.sdk.EntropyDataStateRepositoryLocalFile.SyncPolicy;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EntropyDataStateRepositoryLocalFileTests {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testStateSurvivesReopen() {
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      repository.saveState(Map.of("lastEventId", "1"));
+      repository.saveState(Map.of("lastEventId", "2"));
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("lastEventId", "2"));
+      repository.saveState(Map.of("lastEventId", "3"));
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("lastEventId", "3"));
+    }
+  }
+
+  @Test
+  void testRecoversLastValidRecordAfterTornWrite() throws IOException {
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      repository.saveState(Map.of("lastEventId", "1"));
+      repository.saveState(Map.of("lastEventId", "2"));
+      repository.saveState(Map.of("lastEventId", "3"));
+    }
+    // the json of the last record was only partially written when the process crashed
+    try (var file = new RandomAccessFile(tempDir.resolve("unittest.state").toFile(), "rw")) {
+      long position = lastRecordPosition(file);
+      file.seek(position + 8 + 2);
+      file.write('X');
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("lastEventId", "2"));
+      repository.saveState(Map.of("lastEventId", "4"));
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("lastEventId", "4"));
+    }
+  }
+
+  @Test
+  void testIgnoresRecordWithTruncatedLength() throws IOException {
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      repository.saveState(Map.of("lastEventId", "1"));
+      repository.saveState(Map.of("lastEventId", "2"));
+    }
+    // a length that reaches beyond the end of the file
+    try (var file = new RandomAccessFile(tempDir.resolve("unittest.state").toFile(), "rw")) {
+      file.seek(lastRecordPosition(file));
+      file.writeInt(Integer.MAX_VALUE - 16);
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("lastEventId", "1"));
+    }
+  }
+
+  @Test
+  void testGrowsForLargeState() {
+    var value = "x".repeat(3 * 1024 * 1024);
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      repository.saveState(Map.of("large", value));
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("large", value));
+    }
+  }
+
+  @Test
+  void testKeepsLogAfterFailedCompaction() throws IOException {
+    var value = "x".repeat(300 * 1024);
+    // a directory in place of the compacted log lets the compaction fail
+    Files.createDirectories(tempDir.resolve("unittest.state.compact").resolve("blocked"));
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      repository.saveState(Map.of("large", value, "lastEventId", "1"));
+      repository.saveState(Map.of("large", value, "lastEventId", "2"));
+      repository.saveState(Map.of("large", value, "lastEventId", "3"));
+      assertThatThrownBy(() -> repository.saveState(Map.of("large", value, "lastEventId", "4")))
+          .isInstanceOf(UncheckedIOException.class);
+      assertThat(repository.getState()).containsEntry("lastEventId", "3");
+
+      Files.delete(tempDir.resolve("unittest.state.compact").resolve("blocked"));
+      Files.delete(tempDir.resolve("unittest.state.compact"));
+      repository.saveState(Map.of("large", value, "lastEventId", "5"));
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).isEqualTo(Map.of("large", value, "lastEventId", "5"));
+    }
+  }
+
+  @Test
+  void testConcurrentPutStateKeepsAllEntries() throws Exception {
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir, SyncPolicy.OS)) {
+      runConcurrently(4, 250, (thread, i) -> repository.putState(thread + "-" + i, i));
+      assertThat(repository.getState()).hasSize(4 * 250);
+    }
+
+    try (var repository = new EntropyDataStateRepositoryLocalFile("unittest", tempDir)) {
+      assertThat(repository.getState()).hasSize(4 * 250);
+      assertThat(repository.getState()).containsEntry("3-249", 249);
+    }
+  }
+
+  /**
+   * Calls the writer with the thread number and the iteration from several threads at the same time.
+   */
+  static void runConcurrently(int threads, int iterations, BiConsumer<Integer, Integer> writer) throws Exception {
+    var start = new CountDownLatch(1);
+    var executor = Executors.newFixedThreadPool(threads);
+    try {
+      var futures = new ArrayList<Future<?>>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < iterations; i++) {
+            writer.accept(thread, i);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Follows the {@code [length][crc32][json]} records up to the terminating zero length.
+   */
+  private static long lastRecordPosition(RandomAccessFile file) throws IOException {
+    long position = 0;
+    long last = -1;
+    while (true) {
+      file.seek(position);
+      int length = file.readInt();
+      if (length <= 0) {
+        break;
+      }
+      last = position;
+      position += 8 + length;
+    }
+    assertThat(last).isGreaterThanOrEqualTo(0L);
+    return last;
+  }
+}
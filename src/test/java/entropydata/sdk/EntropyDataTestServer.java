@@ -0,0 +1,117 @@
+package entropydata.sdk;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A minimal stub of the Entropy Data API for tests that do not need WireMock. Unmatched GET requests return 404, all other
+ * unmatched requests return 200 with an empty JSON object. Gzip-encoded request bodies are recorded decompressed, and response
+ * bodies are compressed if the response has a {@code Content-Encoding: gzip} header.
+ */
+final class EntropyDataTestServer implements AutoCloseable {
+
+  /**
+   * @param headers the first value of every request header, with the name in lower case
+   */
+  record Request(String method, String path, String query, String body, Map<String, String> headers) {
+  }
+
+  record Response(int status, String body, Map<String, String> headers) {
+  }
+
+  interface Handler {
+    Response handle(Request request) throws Exception;
+  }
+
+  private final HttpServer server;
+  private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+  private final List<Request> requests = new CopyOnWriteArrayList<>();
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  EntropyDataTestServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    // handles requests concurrently, like the real API
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  static Response json(String body) {
+    return new Response(200, body, Map.of());
+  }
+
+  static Response status(int status) {
+    return new Response(status, "{}", Map.of());
+  }
+
+  void on(String method, String path, Handler handler) {
+    handlers.put(method + " " + path, handler);
+  }
+
+  String getBaseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  List<Request> getRequests(String method, String pathPrefix) {
+    return requests.stream().filter(r -> r.method().equals(method) && r.path().startsWith(pathPrefix)).toList();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      var headers = headers(exchange);
+      var body = "gzip".equals(headers.get("content-encoding"))
+          ? new GZIPInputStream(exchange.getRequestBody()).readAllBytes()
+          : exchange.getRequestBody().readAllBytes();
+      var request = new Request(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+          exchange.getRequestURI().getQuery(), new String(body, StandardCharsets.UTF_8), headers);
+      requests.add(request);
+      var handler = handlers.get(request.method() + " " + request.path());
+      Response response;
+      try {
+        response = handler != null ? handler.handle(request) : status(request.method().equals("GET") ? 404 : 200);
+      } catch (Exception e) {
+        response = new Response(500, "{}", Map.of());
+      }
+      var responseBody = response.body().getBytes(StandardCharsets.UTF_8);
+      if ("gzip".equals(response.headers().get("Content-Encoding"))) {
+        var compressed = new ByteArrayOutputStream();
+        try (var out = new GZIPOutputStream(compressed)) {
+          out.write(responseBody);
+        }
+        responseBody = compressed.toByteArray();
+      }
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      response.headers().forEach(exchange.getResponseHeaders()::set);
+      exchange.sendResponseHeaders(response.status(), response.status() == 204 ? -1 : responseBody.length);
+      if (response.status() != 204) {
+        exchange.getResponseBody().write(responseBody);
+      }
+    }
+  }
+
+  private static Map<String, String> headers(HttpExchange exchange) {
+    var headers = new HashMap<String, String>();
+    exchange.getRequestHeaders().forEach((name, values) -> headers.put(name.toLowerCase(Locale.ROOT), values.get(0)));
+    return headers;
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
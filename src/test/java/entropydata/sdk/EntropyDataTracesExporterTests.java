@@ -0,0 +1,111 @@
+package entropydata.sdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import entropydata.sdk.client.model.OtelTracesRequestResourceSpansInnerResource;
+import entropydata.sdk.client.model.OtelTracesRequestResourceSpansInnerScopeSpansInnerScope;
+import entropydata.sdk.client.model.OtlpSpan;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntropyDataTracesExporterTests {
+
+  private final OtelTracesRequestResourceSpansInnerResource resource = new OtelTracesRequestResourceSpansInnerResource();
+  private final OtelTracesRequestResourceSpansInnerScopeSpansInnerScope scope =
+      new OtelTracesRequestResourceSpansInnerScopeSpansInnerScope().name("snowflake-query-log");
+
+  private EntropyDataTestServer server;
+  private EntropyDataClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new EntropyDataTestServer();
+    client = new EntropyDataClient(server.getBaseUrl(), "APIKEY");
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void testSendsGzippedBatchWhenBatchSizeIsReached() throws Exception {
+    try (var exporter = new EntropyDataTracesExporter(client, 100, 3, Duration.ofHours(1))) {
+      exporter.export(resource, scope, span("1"));
+      exporter.export(resource, scope, span("2"));
+      assertThat(server.getRequests("POST", "/api/v1/traces")).isEmpty();
+
+      exporter.export(resource, scope, span("3"));
+      awaitRequests(1);
+      // waits for the batch in flight
+      exporter.flush();
+
+      var request = server.getRequests("POST", "/api/v1/traces").get(0);
+      assertThat(request.headers().get("content-encoding")).isEqualTo("gzip");
+      var spans = new ObjectMapper().readTree(request.body()).path("resourceSpans").path(0).path("scopeSpans").path(0);
+      assertThat(spans.path("scope").path("name").asText()).isEqualTo("snowflake-query-log");
+      assertThat(spans.path("spans").size()).isEqualTo(3);
+      assertThat(exporter.getExportedSpans()).isEqualTo(3);
+      assertThat(exporter.getQueueSize()).isZero();
+    }
+  }
+
+  @Test
+  void testDropsSpansWhenQueueIsFull() {
+    try (var exporter = new EntropyDataTracesExporter(client, 2, 10, Duration.ofHours(1))) {
+      assertThat(exporter.export(resource, scope, span("1"))).isTrue();
+      assertThat(exporter.export(resource, scope, span("2"))).isTrue();
+      assertThat(exporter.export(resource, scope, span("3"))).isFalse();
+
+      assertThat(exporter.getDroppedSpans()).isEqualTo(1);
+      assertThat(exporter.getQueueSize()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void testCloseSendsQueuedSpans() {
+    var exporter = new EntropyDataTracesExporter(client, 100, 2, Duration.ofHours(1));
+    exporter.export(resource, scope, span("1"));
+    exporter.export(resource, scope, span("2"));
+    exporter.export(resource, scope, span("3"));
+
+    exporter.close();
+
+    assertThat(exporter.getExportedSpans()).isEqualTo(3);
+    assertThat(server.getRequests("POST", "/api/v1/traces")).hasSize(2);
+    assertThat(exporter.export(resource, scope, span("4"))).isFalse();
+    assertThat(exporter.getDroppedSpans()).isEqualTo(1);
+  }
+
+  @Test
+  void testCountsSpansOfFailedBatch() {
+    server.on("POST", "/api/v1/traces", request -> EntropyDataTestServer.status(400));
+    try (var exporter = new EntropyDataTracesExporter(client, 100, 10, Duration.ofHours(1))) {
+      exporter.export(resource, scope, span("1"));
+      exporter.export(resource, scope, span("2"));
+
+      exporter.flush();
+
+      assertThat(exporter.getFailedSpans()).isEqualTo(2);
+      assertThat(exporter.getExportedSpans()).isZero();
+      assertThat(exporter.getQueueSize()).isZero();
+    }
+  }
+
+  private void awaitRequests(int requests) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (server.getRequests("POST", "/api/v1/traces").size() < requests && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(server.getRequests("POST", "/api/v1/traces")).hasSize(requests);
+  }
+
+  private static OtlpSpan span(String spanId) {
+    return new OtlpSpan().traceId("5b8efff798038103d269b633813fc60c").spanId(spanId).name("SELECT").kind("SPAN_KIND_CLIENT");
+  }
+}